@@ -0,0 +1,198 @@
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// Accessibility rules evaluated in Java against an AccessibilityTree, so a whole page costs one script
+// call however many elements are checked. basic() covers every page: document language and title, names
+// on visible controls, buttons, links and images. The require* rules add expectations about specific
+// elements, whose selectors are fetched with the tree:
+//
+//     AccessibilityRules rules = AccessibilityRules.basic().requireLabel("input#name").requireRole("button.pay", "button");
+//     List<AccessibilityRules.Violation> violations = rules.check(webDriver);
+public final class AccessibilityRules
+{
+    private static final Set<String> formControls = Set.of("textbox", "searchbox", "checkbox", "radio", "combobox", "spinbutton", "slider");
+    private static final Set<String> weakNameSources = Set.of("placeholder", "title");
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final Set<String> selectors = new LinkedHashSet<>();
+
+    public record Violation(String rule, String target, String message)
+    {
+        @Override
+        public String toString()
+        {
+            return rule + ": " + target + " " + message;
+        }
+    }
+
+    private interface Rule
+    {
+        void check(AccessibilityTree tree, List<Violation> violations);
+    }
+
+    private AccessibilityRules()
+    {
+    }
+
+    public static AccessibilityRules basic()
+    {
+        AccessibilityRules basic = new AccessibilityRules();
+
+        basic.rules.add((tree, violations) -> {
+            if (tree.lang() == null || tree.lang().isBlank())
+            {
+                violations.add(new Violation("document-lang", "html", "has no lang attribute"));
+            }
+
+            if (tree.title() == null || tree.title().isBlank())
+            {
+                violations.add(new Violation("document-title", "title", "is empty"));
+            }
+        });
+
+        basic.rules.add((tree, violations) -> {
+            for (AccessibilityTree.Node node : tree.nodes())
+            {
+                if (node.hidden())
+                {
+                    continue;
+                }
+
+                if (formControls.contains(node.role()) && !isLabelled(node))
+                {
+                    violations.add(new Violation("control-name", node.describe(), node.hasName()
+                            ? "is only named by its " + node.nameSource()
+                            : "has no accessible name"));
+                }
+                else if ((node.role().equals("button") || node.role().equals("link") || node.role().equals("img")) && !node.hasName())
+                {
+                    violations.add(new Violation(node.role() + "-name", node.describe(), "has no accessible name"));
+                }
+            }
+        });
+
+        return basic;
+    }
+
+    // Every element matching the selector is there and named by a label, aria-label or aria-labelledby
+    public AccessibilityRules requireLabel(String cssSelector)
+    {
+        return require(cssSelector, (node, violations) -> {
+            if (!isLabelled(node))
+            {
+                violations.add(new Violation("label", cssSelector, node.hasName()
+                        ? "is only named by its " + node.nameSource()
+                        : "has no label"));
+            }
+        });
+    }
+
+    public AccessibilityRules requireRole(String cssSelector, String role)
+    {
+        return require(cssSelector, (node, violations) -> {
+            if (!node.role().equals(role))
+            {
+                violations.add(new Violation("role", cssSelector, "has role " + node.role() + " instead of " + role));
+            }
+        });
+    }
+
+    // A visible landmark with the role exists and every element matching the selector is inside one
+    public AccessibilityRules requireLandmark(String role, String containedCssSelector)
+    {
+        selectors.add(containedCssSelector);
+        rules.add((tree, violations) -> {
+            if (tree.withRole(role).stream().allMatch(AccessibilityTree.Node::hidden))
+            {
+                violations.add(new Violation("landmark", role, "landmark is missing"));
+            }
+
+            for (Optional<AccessibilityTree.Node> match : tree.matching(containedCssSelector))
+            {
+                if (match.isEmpty() || !isInside(tree, match.get(), role))
+                {
+                    violations.add(new Violation("landmark", containedCssSelector,
+                            match.map(AccessibilityTree.Node::describe).orElse("element") + " is outside any " + role + " landmark"));
+                }
+            }
+        });
+
+        return this;
+    }
+
+    public List<Violation> check(WebDriver driver)
+    {
+        return check(AccessibilityTree.of(driver, selectors.toArray(String[]::new)));
+    }
+
+    public List<Violation> check(AccessibilityTree tree)
+    {
+        List<Violation> violations = new ArrayList<>();
+        rules.forEach(rule -> rule.check(tree, violations));
+
+        return violations;
+    }
+
+    private interface NodeRule
+    {
+        void check(AccessibilityTree.Node node, List<Violation> violations);
+    }
+
+    private AccessibilityRules require(String cssSelector, NodeRule rule)
+    {
+        selectors.add(cssSelector);
+        rules.add((tree, violations) -> {
+            List<Optional<AccessibilityTree.Node>> matches = tree.matching(cssSelector);
+
+            if (matches.isEmpty())
+            {
+                violations.add(new Violation("exists", cssSelector, "matches no element"));
+            }
+
+            for (Optional<AccessibilityTree.Node> match : matches)
+            {
+                if (match.isEmpty())
+                {
+                    violations.add(new Violation("role", cssSelector, "has no role"));
+                }
+                else if (match.get().hidden())
+                {
+                    violations.add(new Violation("hidden", cssSelector, "is hidden from assistive technology"));
+                }
+                else
+                {
+                    rule.check(match.get(), violations);
+                }
+            }
+        });
+
+        return this;
+    }
+
+    private static boolean isLabelled(AccessibilityTree.Node node)
+    {
+        return node.hasName() && !weakNameSources.contains(node.nameSource());
+    }
+
+    private static boolean isInside(AccessibilityTree tree, AccessibilityTree.Node node, String role)
+    {
+        Optional<AccessibilityTree.Node> landmark = tree.landmarkOf(node);
+
+        while (landmark.isPresent())
+        {
+            if (landmark.get().role().equals(role))
+            {
+                return true;
+            }
+
+            landmark = tree.landmarkOf(landmark.get());
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,59 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccessibilityRulesTest
+{
+    // As the AccessibilityTree script returns it: a labelled name field, an email field named only by its
+    // placeholder, a hidden unnamed button and the route link inside the navigation landmark
+    private static final String tree = """
+            {"title": "Coffee cart", "lang": "en", "nodes": [
+              {"tag": "nav", "id": "", "role": "navigation", "name": "Main", "nameSource": "aria-label", "hidden": false, "landmark": -1},
+              {"tag": "a", "id": "", "role": "link", "name": "menu", "nameSource": "content", "hidden": false, "landmark": 0},
+              {"tag": "button", "id": "", "role": "button", "name": "", "nameSource": null, "hidden": true, "landmark": -1},
+              {"tag": "form", "id": "", "role": "form", "name": "", "nameSource": null, "hidden": false, "landmark": -1},
+              {"tag": "input", "id": "name", "role": "textbox", "name": "Name", "nameSource": "label", "hidden": false, "landmark": 3},
+              {"tag": "input", "id": "email", "role": "textbox", "name": "mail", "nameSource": "placeholder", "hidden": false, "landmark": 3},
+              {"tag": "button", "id": "", "role": "button", "name": "Total: $19.00", "nameSource": "content", "hidden": false, "landmark": -1}],
+             "matches": {"input#name": [4], "input#email": [5], "button.pay": [6], "#app a": [1], "div.cup": [-1]}}
+            """;
+
+    @Test
+    public void testRequiredElementsPass()
+    {
+        List<AccessibilityRules.Violation> violations = AccessibilityRules.basic()
+                .requireLabel("input#name")
+                .requireRole("button.pay", "button")
+                .requireLandmark("navigation", "#app a")
+                .check(AccessibilityTree.parse(tree));
+
+        // Only the basic rule about the email field, the hidden button is not checked
+        assertEquals(1, violations.size(), violations::toString);
+        assertEquals("control-name", violations.get(0).rule());
+        assertTrue(violations.get(0).target().startsWith("input#email"));
+    }
+
+    @Test
+    public void testPlaceholderIsNoLabel()
+    {
+        List<AccessibilityRules.Violation> violations = AccessibilityRules.basic()
+                .requireLabel("input#email")
+                .check(AccessibilityTree.parse(tree));
+
+        assertEquals(List.of("control-name", "label"), violations.stream().map(AccessibilityRules.Violation::rule).toList());
+    }
+
+    @Test
+    public void testMissingRoleAndLandmarkAreReported()
+    {
+        List<AccessibilityRules.Violation> violations = AccessibilityRules.basic()
+                .requireRole("div.cup", "button")
+                .requireLandmark("main", "#app a")
+                .check(AccessibilityTree.parse(tree));
+
+        assertEquals(List.of("control-name", "role", "landmark", "landmark"), violations.stream().map(AccessibilityRules.Violation::rule).toList());
+    }
+}
@@ -0,0 +1,106 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Accessibility of the menu, cart and checkout of the app, one AccessibilityTree script call per checked page
+@Tag("browser")
+@ExtendWith(InfrastructureBreaker.class)
+public class AccessibilityTest
+{
+    private static final CoffeeCatalog catalog = CoffeeCatalog.get();
+    private static final String menuUrl = catalog.url("menu");
+
+    private static final AccessibilityRules pageRules = AccessibilityRules.basic()
+            .requireRole("button.pay", "button");
+    private static final AccessibilityRules navigationRules = AccessibilityRules.basic()
+            .requireLandmark("navigation", "#app ul[data-v-bb7b5941] a");
+    private static final AccessibilityRules checkoutRules = AccessibilityRules.basic()
+            .requireLabel("input#name")
+            .requireLabel("input#email")
+            .requireLabel("input#promotion")
+            .requireRole("button#submit-payment", "button");
+
+    private static Capabilities browserOptions;
+    private WebDriver webDriver;
+    private WebDriverWait wait;
+
+    @BeforeAll
+    public static void setupClass()
+    {
+        Browser.current().setupDriver();
+
+        browserOptions = Drivers.defaultOptions();
+    }
+
+    @BeforeEach
+    public void setup()
+    {
+        webDriver = Drivers.create(browserOptions);
+        wait = new TimedWait(webDriver, Duration.ofSeconds(5));
+        webDriver.get(menuUrl);
+    }
+
+    @AfterEach
+    public void teardown()
+    {
+        Drivers.quit(webDriver);
+    }
+
+    private static void assertNoViolations(List<AccessibilityRules.Violation> violations)
+    {
+        assertTrue(violations.isEmpty(), () -> violations.size() + " accessibility violations:\n  "
+                + String.join("\n  ", violations.stream().map(AccessibilityRules.Violation::toString).toList()));
+    }
+
+    // The cart page only shows the pay button with something in the cart, and the cart does not survive a reload
+    private void goToCartWithOneCoffee()
+    {
+        webDriver.findElement(By.cssSelector("li[data-v-a9662a08] div div.cup")).click();
+        webDriver.findElement(By.cssSelector("a[href='/cart']")).click();
+        wait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector("div.pay-container button.pay")));
+    }
+
+    @Test
+    public void testMenuPageIsAccessible()
+    {
+        assertNoViolations(pageRules.check(webDriver));
+    }
+
+    @Test
+    public void testCartPageIsAccessible()
+    {
+        goToCartWithOneCoffee();
+
+        assertNoViolations(pageRules.check(webDriver));
+    }
+
+    @Test
+    public void testCheckoutFormIsLabelled()
+    {
+        webDriver.findElement(By.cssSelector("button.pay")).click();
+        wait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector("div.modal-content")));
+
+        assertNoViolations(checkoutRules.check(webDriver));
+    }
+
+    @Test
+    @Disabled("The app renders its route links in a plain <ul> under #app, without a <nav> or role=\"navigation\" around them, so screen reader users get no navigation landmark.")
+    public void testRouteLinksAreInNavigationLandmark()
+    {
+        assertNoViolations(navigationRules.check(webDriver));
+    }
+}
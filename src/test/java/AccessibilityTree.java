@@ -0,0 +1,182 @@
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// The page's accessibility tree as far as the checks need it, computed in the page by a single script
+// call: every element with a role (explicit or implied by its tag), its accessible name and where the
+// name came from, whether it is hidden from assistive technology and the landmark it sits in. The
+// selectors passed in are matched in the same call, so rules can address elements without further round
+// trips. Names follow the usual precedence of aria-labelledby, aria-label, <label>, alt, text content,
+// title and placeholder. Like DomSnapshot, a tree does not follow later changes of the page.
+public final class AccessibilityTree
+{
+    private static final String script = """
+            const selectors = arguments[0];
+            const implicitRoles = {
+                A: el => el.hasAttribute('href') ? 'link' : null, ARTICLE: () => 'article', ASIDE: () => 'complementary',
+                BUTTON: () => 'button', FOOTER: () => 'contentinfo', FORM: () => 'form', H1: () => 'heading',
+                H2: () => 'heading', H3: () => 'heading', H4: () => 'heading', H5: () => 'heading', H6: () => 'heading',
+                HEADER: () => 'banner', IMG: el => el.getAttribute('alt') === '' ? 'presentation' : 'img', LI: () => 'listitem',
+                MAIN: () => 'main', NAV: () => 'navigation', OL: () => 'list', SELECT: () => 'combobox',
+                TEXTAREA: () => 'textbox', UL: () => 'list',
+                INPUT: el => ({ checkbox: 'checkbox', radio: 'radio', button: 'button', submit: 'button', reset: 'button',
+                        image: 'button', range: 'slider', number: 'spinbutton', search: 'searchbox', hidden: null })[el.type] ?? 'textbox'
+            };
+            const landmarks = ['banner', 'complementary', 'contentinfo', 'form', 'main', 'navigation', 'region', 'search'];
+            const nameFromContent = ['button', 'link', 'heading', 'listitem', 'checkbox', 'radio', 'tab', 'menuitem', 'option'];
+            const text = value => (value || '').replace(/\\s+/g, ' ').trim();
+
+            function roleOf(el) {
+                const explicit = text(el.getAttribute('role')).split(' ')[0];
+                return explicit || (implicitRoles[el.tagName] ? implicitRoles[el.tagName](el) : null);
+            }
+
+            function nameOf(el, role) {
+                const labelledBy = text(el.getAttribute('aria-labelledby'));
+                if (labelledBy) {
+                    const name = text(labelledBy.split(' ').map(id => document.getElementById(id)).filter(Boolean)
+                            .map(label => label.textContent).join(' '));
+                    if (name) return [name, 'aria-labelledby'];
+                }
+                if (text(el.getAttribute('aria-label'))) return [text(el.getAttribute('aria-label')), 'aria-label'];
+                if (el.labels && el.labels.length > 0) {
+                    const name = text(Array.from(el.labels).map(label => label.textContent).join(' '));
+                    if (name) return [name, 'label'];
+                }
+                if (el.hasAttribute('alt')) return [text(el.getAttribute('alt')), 'alt'];
+                if (el.tagName === 'INPUT' && ['submit', 'button', 'reset'].includes(el.type) && text(el.value)) return [text(el.value), 'value'];
+                if (nameFromContent.includes(role) && text(el.textContent)) return [text(el.textContent), 'content'];
+                if (text(el.getAttribute('title'))) return [text(el.getAttribute('title')), 'title'];
+                if (text(el.getAttribute('placeholder'))) return [text(el.getAttribute('placeholder')), 'placeholder'];
+                return ['', null];
+            }
+
+            function isHidden(el) {
+                if (el.closest('[aria-hidden="true"]')) return true;
+                return el.checkVisibility ? !el.checkVisibility({ visibilityProperty: true }) : el.getClientRects().length === 0;
+            }
+
+            const nodes = [];
+            const indexes = new Map();
+            for (const el of document.body.querySelectorAll('*')) {
+                const role = roleOf(el);
+                if (!role || role === 'presentation' || role === 'none') continue;
+                const [name, nameSource] = nameOf(el, role);
+                let landmark = -1;
+                for (let parent = el.parentElement; parent && landmark < 0; parent = parent.parentElement) {
+                    if (indexes.has(parent) && landmarks.includes(nodes[indexes.get(parent)].role)) landmark = indexes.get(parent);
+                }
+                indexes.set(el, nodes.length);
+                nodes.push({ tag: el.tagName.toLowerCase(), id: el.id, role, name, nameSource, hidden: isHidden(el), landmark });
+            }
+
+            const matches = {};
+            for (const selector of selectors) {
+                matches[selector] = Array.from(document.querySelectorAll(selector)).map(el => indexes.has(el) ? indexes.get(el) : -1);
+            }
+
+            return JSON.stringify({ title: document.title, lang: document.documentElement.lang, nodes, matches });
+            """;
+
+    private final String title;
+    private final String lang;
+    private final List<Node> nodes;
+    private final Map<String, List<Integer>> matches;
+
+    // nameSource is null when the element has no accessible name; landmark is the index of the closest
+    // enclosing landmark node, -1 when there is none
+    public record Node(int index, String tag, String id, String role, String name, String nameSource, boolean hidden, int landmark)
+    {
+        public boolean hasName()
+        {
+            return !name.isEmpty();
+        }
+
+        public String describe()
+        {
+            return tag + (id.isEmpty() ? "" : "#" + id) + " [" + role + (hasName() ? " \"" + name + "\"" : "") + "]";
+        }
+    }
+
+    private AccessibilityTree(String title, String lang, List<Node> nodes, Map<String, List<Integer>> matches)
+    {
+        this.title = title;
+        this.lang = lang;
+        this.nodes = nodes;
+        this.matches = matches;
+    }
+
+    public static AccessibilityTree of(WebDriver driver, String... cssSelectors)
+    {
+        Arrays.stream(cssSelectors).forEach(Footprints::selector);
+
+        return parse((String) ((JavascriptExecutor) driver).executeScript(script, List.of(cssSelectors)));
+    }
+
+    @SuppressWarnings("unchecked")
+    static AccessibilityTree parse(String json)
+    {
+        Map<String, Object> tree = JsonLines.parse(json);
+        List<Node> nodes = new ArrayList<>();
+
+        for (Object value : (List<Object>) tree.get("nodes"))
+        {
+            Map<String, Object> node = (Map<String, Object>) value;
+
+            nodes.add(new Node(nodes.size(), (String) node.get("tag"), (String) node.get("id"), (String) node.get("role"),
+                    (String) node.get("name"), (String) node.get("nameSource"), Boolean.TRUE.equals(node.get("hidden")),
+                    ((Number) node.get("landmark")).intValue()));
+        }
+
+        Map<String, List<Integer>> matches = new LinkedHashMap<>();
+        ((Map<String, Object>) tree.get("matches")).forEach((selector, indexes) ->
+                matches.put(selector, ((List<Object>) indexes).stream().map(index -> ((Number) index).intValue()).toList()));
+
+        return new AccessibilityTree((String) tree.get("title"), (String) tree.get("lang"), List.copyOf(nodes), matches);
+    }
+
+    public String title()
+    {
+        return title;
+    }
+
+    public String lang()
+    {
+        return lang;
+    }
+
+    public List<Node> nodes()
+    {
+        return nodes;
+    }
+
+    // Elements matching one of the selectors the tree was taken with; an element without a role has no
+    // node and shows up as an empty Optional
+    public List<Optional<Node>> matching(String cssSelector)
+    {
+        List<Integer> indexes = matches.get(cssSelector);
+
+        if (indexes == null)
+        {
+            throw new IllegalArgumentException("The tree was not taken with selector " + cssSelector);
+        }
+
+        return indexes.stream().map(index -> index < 0 ? Optional.<Node>empty() : Optional.of(nodes.get(index))).toList();
+    }
+
+    public Optional<Node> landmarkOf(Node node)
+    {
+        return node.landmark() < 0 ? Optional.empty() : Optional.of(nodes.get(node.landmark()));
+    }
+
+    public List<Node> withRole(String role)
+    {
+        return nodes.stream().filter(node -> node.role().equals(role)).toList();
+    }
+}
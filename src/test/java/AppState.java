@@ -0,0 +1,36 @@
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Puts a freshly loaded menu page into the state a CartModel describes without clicking through the
+// menu. Only the CoffeeCartStandIn offers this (window.__seedCart), elsewhere isSeedable is false.
+public final class AppState
+{
+    private AppState()
+    {
+    }
+
+    public static boolean isSeedable(WebDriver driver)
+    {
+        return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript("return typeof window.__seedCart === 'function';"));
+    }
+
+    public static void seed(WebDriver driver, CartModel state)
+    {
+        List<Map<String, Object>> entries = state.entries().stream()
+                .map(entry -> {
+                    Map<String, Object> seeded = new LinkedHashMap<>();
+                    seeded.put("name", entry.name());
+                    seeded.put("price", entry.price().doubleValue());
+                    seeded.put("count", entry.count());
+
+                    return seeded;
+                })
+                .toList();
+
+        ((JavascriptExecutor) driver).executeScript("window.__seedCart(arguments[0], arguments[1]);", entries, state.addsSincePromo());
+    }
+}
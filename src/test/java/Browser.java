@@ -0,0 +1,140 @@
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+// Browsers the suite runs against, chosen with -Dcoffeecart.browser=firefox|chromium (default firefox).
+// Everything browser specific about starting a session lives here, the rest of the suite passes
+// Capabilities around.
+public enum Browser
+{
+    FIREFOX("firefox")
+    {
+        @Override
+        protected WebDriverManager driverManager()
+        {
+            return WebDriverManager.firefoxdriver();
+        }
+
+        @Override
+        public MutableCapabilities defaultOptions()
+        {
+            FirefoxOptions firefoxOptions = new FirefoxOptions();
+            firefoxOptions.addArguments("--headless");
+
+            return firefoxOptions;
+        }
+
+        @Override
+        public RemoteWebDriver start(Capabilities options)
+        {
+            return new FirefoxDriver(firefoxOptions(options));
+        }
+    },
+
+    CHROMIUM("chromium")
+    {
+        @Override
+        protected WebDriverManager driverManager()
+        {
+            return WebDriverManager.chromiumdriver();
+        }
+
+        @Override
+        public MutableCapabilities defaultOptions()
+        {
+            ChromeOptions chromeOptions = new ChromeOptions();
+            chromeOptions.addArguments("--headless=new");
+            // Without it chromedriver looks for Google Chrome, not Chromium
+            chromiumBinary().ifPresent(binary -> chromeOptions.setBinary(binary.toFile()));
+
+            return chromeOptions;
+        }
+
+        @Override
+        public RemoteWebDriver start(Capabilities options)
+        {
+            return new ChromeDriver(chromeOptions(options));
+        }
+    };
+
+    private static final Browser current = of(System.getProperty("coffeecart.browser", "firefox"));
+    private static Optional<Path> chromiumBinary;
+
+    private final String key;
+    private boolean driverReady;
+
+    Browser(String key)
+    {
+        this.key = key;
+    }
+
+    public static Browser current()
+    {
+        return current;
+    }
+
+    public static Browser of(String key)
+    {
+        return Arrays.stream(values())
+                .filter(browser -> browser.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown browser '" + key + "', expected one of "
+                        + Arrays.stream(values()).map(Browser::key).toList()));
+    }
+
+    // Chromium sessions report their browserName as "chrome"
+    public static Browser of(Capabilities options)
+    {
+        return options.getBrowserName().equals("firefox") ? FIREFOX : CHROMIUM;
+    }
+
+    public String key()
+    {
+        return key;
+    }
+
+    // Resolves (and downloads if needed) the matching driver binary once per JVM
+    public synchronized void setupDriver()
+    {
+        if (!driverReady)
+        {
+            driverManager().setup();
+            driverReady = true;
+        }
+    }
+
+    protected abstract WebDriverManager driverManager();
+
+    public abstract MutableCapabilities defaultOptions();
+
+    public abstract RemoteWebDriver start(Capabilities options);
+
+    public static FirefoxOptions firefoxOptions(Capabilities options)
+    {
+        return options instanceof FirefoxOptions firefoxOptions ? firefoxOptions : new FirefoxOptions().merge(options);
+    }
+
+    public static ChromeOptions chromeOptions(Capabilities options)
+    {
+        return options instanceof ChromeOptions chromeOptions ? chromeOptions : new ChromeOptions().merge(options);
+    }
+
+    private static synchronized Optional<Path> chromiumBinary()
+    {
+        if (chromiumBinary == null)
+        {
+            chromiumBinary = WebDriverManager.chromiumdriver().getBrowserPath();
+        }
+
+        return chromiumBinary;
+    }
+}
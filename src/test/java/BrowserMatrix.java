@@ -0,0 +1,247 @@
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.launcher.LauncherExecutionRequest;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Usage: java BrowserMatrix [browser ...]   (default: firefox chromium)
+// Runs the test classes (-Dcoffeecart.matrix.classes, default MenuTest,CartTest,NavigationTest) against
+// every browser at the same time, one JVM per browser with its own pool of parallel test workers
+// (-Dcoffeecart.matrix.workers, default cores / browsers). Each browser writes its usual output to
+// target/matrix/<browser>; the combined report compares them test by test and is written to
+// target/matrix-report.jsonl. Other -Dcoffeecart.* properties are passed on to every browser.
+public class BrowserMatrix
+{
+    private static final List<String> defaultClasses = List.of("MenuTest", "CartTest", "NavigationTest");
+
+    public static void main(String[] args) throws Exception
+    {
+        List<Browser> browsers = args.length == 0
+                ? List.of(Browser.FIREFOX, Browser.CHROMIUM)
+                : Arrays.stream(args).map(Browser::of).toList();
+        String classes = System.getProperty("coffeecart.matrix.classes", String.join(",", defaultClasses));
+        int workers = Integer.getInteger("coffeecart.matrix.workers",
+                Math.max(1, Runtime.getRuntime().availableProcessors() / browsers.size()));
+        Path matrixDirectory = SuiteOutput.directory().resolve("matrix");
+
+        long started = System.nanoTime();
+        Map<Browser, CompletableFuture<Process>> finished = new LinkedHashMap<>();
+        Map<Browser, Long> wallNanos = new ConcurrentHashMap<>();
+
+        for (Browser browser : browsers)
+        {
+            Process process = startWorker(browser, matrixDirectory.resolve(browser.key()), classes, workers);
+            finished.put(browser, process.onExit().whenComplete((exited, e) -> wallNanos.put(browser, System.nanoTime() - started)));
+        }
+
+        // A worker that crashed may have written no results at all, its exit value still fails the matrix
+        Map<Browser, Integer> exitValues = new LinkedHashMap<>();
+        finished.forEach((browser, future) -> exitValues.put(browser, future.join().exitValue()));
+
+        long matrixNanos = System.nanoTime() - started;
+        boolean failed = report(browsers, matrixDirectory, wallNanos, matrixNanos);
+
+        for (Map.Entry<Browser, Integer> exit : exitValues.entrySet())
+        {
+            if (exit.getValue() != 0)
+            {
+                System.out.printf("  %-10s worker exited with %d%n", exit.getKey().key(), exit.getValue());
+                failed = true;
+            }
+        }
+
+        System.exit(failed ? 1 : 0);
+    }
+
+    private static Process startWorker(Browser browser, Path directory, String classes, int workers) throws IOException
+    {
+        Files.createDirectories(directory);
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("coffeecart.") && !name.startsWith("coffeecart.matrix."))
+                .filter(name -> !name.equals("coffeecart.browser") && !name.equals("coffeecart.outputDir")
+                        && !name.equals("coffeecart.results.file"))
+                .sorted()
+                .forEach(name -> command.add("-D" + name + "=" + System.getProperty(name)));
+
+        command.add("-Dcoffeecart.browser=" + browser.key());
+        command.add("-Dcoffeecart.outputDir=" + directory.toAbsolutePath());
+        command.add("-Dcoffeecart.results.file=" + directory.resolve("test-results.jsonl").toAbsolutePath());
+        command.add(Worker.class.getName());
+        command.add(classes);
+        command.add(String.valueOf(workers));
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+        Thread.ofPlatform().daemon().name("matrix-output-" + browser.key()).start(() -> prefixOutput(browser, process));
+
+        return process;
+    }
+
+    // Interleaved output of both browsers stays readable with a prefix per line
+    private static void prefixOutput(Browser browser, Process process)
+    {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)))
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                System.out.println("[" + browser.key() + "] " + line);
+            }
+        }
+        catch (IOException e)
+        {
+            // The worker is gone, its exit code tells the rest
+        }
+    }
+
+    // Returns whether any test failed or is missing in a browser
+    private static boolean report(List<Browser> browsers, Path matrixDirectory, Map<Browser, Long> wallNanos, long matrixNanos)
+    {
+        // test id -> browser -> results line
+        Map<String, Map<Browser, Map<String, Object>>> tests = new TreeMap<>();
+        Map<Browser, Double> totalMillis = new LinkedHashMap<>();
+
+        for (Browser browser : browsers)
+        {
+            Path results = matrixDirectory.resolve(browser.key()).resolve("test-results.jsonl");
+            List<Map<String, Object>> records = Files.exists(results) ? JsonLines.read(results) : List.of();
+
+            totalMillis.put(browser, records.stream().mapToDouble(record -> number(record.get("durationMillis"))).sum());
+
+            for (Map<String, Object> record : records)
+            {
+                tests.computeIfAbsent(testId(record), id -> new LinkedHashMap<>())
+                        .put(browser, record);
+            }
+        }
+
+        System.out.printf("%nBrowser matrix: %d tests%n", tests.size());
+
+        long failures = 0;
+
+        for (Browser browser : browsers)
+        {
+            long failed = tests.values().stream()
+                    .map(results -> results.get(browser))
+                    .filter(record -> record == null || "FAILED".equals(record.get("status")))
+                    .count();
+            failures += failed;
+
+            System.out.printf("  %-10s finished after %7.1f s, %8.1f s test time, %d failed or missing%n", browser.key(),
+                    wallNanos.get(browser) / 1e9, totalMillis.get(browser) / 1000, failed);
+        }
+
+        double sequentialSeconds = wallNanos.values().stream().mapToLong(Long::longValue).sum() / 1e9;
+        System.out.printf("  matrix wall time %.1f s, one browser after the other would take about %.1f s%n",
+                matrixNanos / 1e9, sequentialSeconds);
+
+        if (browsers.size() == 2)
+        {
+            Browser first = browsers.get(0);
+            Browser second = browsers.get(1);
+
+            System.out.printf("%nLargest differences (%s - %s):%n", second.key(), first.key());
+            tests.entrySet().stream()
+                    .filter(entry -> entry.getValue().size() == 2)
+                    .sorted(Comparator.comparingDouble((Map.Entry<String, Map<Browser, Map<String, Object>>> entry) ->
+                            Math.abs(difference(entry.getValue(), first, second))).reversed())
+                    .limit(10)
+                    .forEach(entry -> System.out.printf("  %+10.1f ms  %s%n", difference(entry.getValue(), first, second), entry.getKey()));
+        }
+
+        try (JsonLines report = JsonLines.create(SuiteOutput.file("coffeecart.matrix.report", "matrix-report.jsonl")))
+        {
+            tests.forEach((id, results) -> {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("test", id);
+
+                for (Browser browser : browsers)
+                {
+                    Map<String, Object> record = results.get(browser);
+                    Map<String, Object> summary = new LinkedHashMap<>();
+                    summary.put("status", record != null ? record.get("status") : "MISSING");
+                    summary.put("durationMillis", record != null ? record.get("durationMillis") : null);
+                    summary.put("phases", record != null ? record.get("phases") : null);
+                    line.put(browser.key(), summary);
+                }
+
+                report.append(line);
+            });
+        }
+
+        return failures > 0;
+    }
+
+    // Parameterized invocations share class and method, their display name ("[2] https://...") tells them apart
+    static String testId(Map<String, Object> record)
+    {
+        String id = record.get("class") + "#" + record.get("method");
+        Object displayName = record.get("displayName");
+
+        return displayName == null || displayName.equals(record.get("method") + "()") ? id : id + " " + displayName;
+    }
+
+    private static double difference(Map<Browser, Map<String, Object>> results, Browser first, Browser second)
+    {
+        return number(results.get(second).get("durationMillis")) - number(results.get(first).get("durationMillis"));
+    }
+
+    private static double number(Object value)
+    {
+        return value instanceof Number number ? number.doubleValue() : 0;
+    }
+
+    // Runs in the per-browser JVM: the given classes with a fixed pool of parallel workers
+    public static final class Worker
+    {
+        public static void main(String[] args)
+        {
+            List<String> classes = List.of(args[0].split(","));
+            String workers = args[1];
+
+            SummaryGeneratingListener listener = new SummaryGeneratingListener();
+            LauncherExecutionRequest request = LauncherDiscoveryRequestBuilder.request()
+                    .selectors(classes.stream().map(DiscoverySelectors::selectClass).toList())
+                    .configurationParameter("junit.jupiter.execution.parallel.enabled", "true")
+                    .configurationParameter("junit.jupiter.execution.parallel.mode.default", "concurrent")
+                    .configurationParameter("junit.jupiter.execution.parallel.mode.classes.default", "concurrent")
+                    .configurationParameter("junit.jupiter.execution.parallel.config.strategy", "fixed")
+                    .configurationParameter("junit.jupiter.execution.parallel.config.fixed.parallelism", workers)
+                    .forExecution()
+                    .listeners(listener)
+                    .build();
+
+            LauncherFactory.create().execute(request);
+
+            TestExecutionSummary summary = listener.getSummary();
+            summary.printTo(new PrintWriter(System.out, true, StandardCharsets.UTF_8));
+            summary.printFailuresTo(new PrintWriter(System.out, true, StandardCharsets.UTF_8), 5);
+
+            System.exit(summary.getTotalFailureCount() > 0 ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Driver and browser processes behind one session. Firefox reports its own pid in the moz:processID
+// capability, Chromium the profile directory its main process was started with; either way the driver
+// is the browser's parent. Otherwise the new children of this JVM are used.
+public final class BrowserProcesses
+{
+    private final List<ProcessHandle> roots;
+
+    private BrowserProcesses(List<ProcessHandle> roots)
+    {
+        this.roots = roots;
+    }
+
+    public static Set<Long> childrenOfThisJvm()
+    {
+        return ProcessHandle.current().children()
+                .map(ProcessHandle::pid)
+                .collect(Collectors.toSet());
+    }
+
+    public static BrowserProcesses of(WebDriver driver, Set<Long> childrenBefore)
+    {
+        List<ProcessHandle> roots = new ArrayList<>();
+
+        browserPid(driver).flatMap(ProcessHandle::of).ifPresent(browser -> {
+            browser.parent()
+                    .filter(parent -> parent.parent().map(ProcessHandle.current()::equals).orElse(false))
+                    .ifPresent(roots::add);
+            roots.add(browser);
+        });
+
+        if (roots.isEmpty())
+        {
+            ProcessHandle.current().children()
+                    .filter(child -> !childrenBefore.contains(child.pid()))
+                    .forEach(roots::add);
+        }
+
+        return new BrowserProcesses(List.copyOf(roots));
+    }
+
+    private static Optional<Long> browserPid(WebDriver driver)
+    {
+        if (!(driver instanceof HasCapabilities hasCapabilities))
+        {
+            return Optional.empty();
+        }
+
+        Capabilities capabilities = hasCapabilities.getCapabilities();
+
+        if (capabilities.getCapability("moz:processID") instanceof Number pid)
+        {
+            return Optional.of(pid.longValue());
+        }
+
+        if (capabilities.getCapability("chrome") instanceof Map<?, ?> chrome && chrome.get("userDataDir") instanceof String userDataDir)
+        {
+            // Helper processes get the same argument, the main process is the one whose parent does not
+            String argument = "--user-data-dir=" + userDataDir;
+
+            return ProcessHandle.allProcesses()
+                    .filter(process -> hasArgument(process, argument))
+                    .filter(process -> process.parent().map(parent -> !hasArgument(parent, argument)).orElse(true))
+                    .map(ProcessHandle::pid)
+                    .findFirst();
+        }
+
+        return Optional.empty();
+    }
+
+    private static boolean hasArgument(ProcessHandle process, String argument)
+    {
+        return List.of(process.info().arguments().orElse(new String[0])).contains(argument);
+    }
+
+    public List<ProcessHandle> roots()
+    {
+        return roots;
+    }
+
+    // Roots plus everything they spawned (content processes, GPU process, ...)
+    public Stream<ProcessHandle> all()
+    {
+        return roots.stream().flatMap(root -> Stream.concat(Stream.of(root), root.descendants()));
+    }
+
+    public boolean isAlive()
+    {
+        return roots.stream().anyMatch(ProcessHandle::isAlive);
+    }
+
+    public int kill()
+    {
+        List<ProcessHandle> alive = all().filter(ProcessHandle::isAlive).toList();
+
+        // Children first, so nothing gets re-parented to init half way through
+        for (int i = alive.size() - 1; i >= 0; --i)
+        {
+            alive.get(i).destroyForcibly();
+        }
+
+        return alive.size();
+    }
+
+    static String ledgerLine(ProcessHandle process)
+    {
+        Instant started = process.info().startInstant().orElse(Instant.EPOCH);
+
+        return ProcessHandle.current().pid() + " " + process.pid() + " " + started;
+    }
+}
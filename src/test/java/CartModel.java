@@ -0,0 +1,104 @@
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// What the cart holds after scenario steps, by the app's rules: every promo.everyItems-th coffee added
+// from the menu offers the promo coffee at its discounted price until the next step.
+public final class CartModel
+{
+    private static final CoffeeCatalog catalog = CoffeeCatalog.get();
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private int addsSincePromo;
+    private boolean promoVisible;
+
+    public record Entry(String name, BigDecimal price, int count)
+    {
+    }
+
+    public static CartModel after(List<Scenario.Step> steps)
+    {
+        CartModel model = new CartModel();
+        steps.forEach(model::apply);
+
+        return model;
+    }
+
+    public void apply(Scenario.Step step)
+    {
+        boolean promoWasVisible = promoVisible;
+        promoVisible = false;
+
+        switch (step.action())
+        {
+            case ADD ->
+            {
+                CoffeeCatalog.Coffee coffee = catalog.byName(step.coffee());
+                add(coffee.name(), coffee.price());
+
+                addsSincePromo++;
+                promoVisible = addsSincePromo % catalog.promo().everyItems() == 0;
+            }
+            case REMOVE ->
+            {
+                Entry entry = entries.get(step.coffee());
+
+                if (entry == null)
+                {
+                    throw new IllegalStateException("Cannot remove " + step.coffee() + ", it is not in the cart");
+                }
+
+                if (entry.count() == 1)
+                {
+                    entries.remove(step.coffee());
+                }
+                else
+                {
+                    entries.put(step.coffee(), new Entry(entry.name(), entry.price(), entry.count() - 1));
+                }
+            }
+            case PROMO_ACCEPT, PROMO_SKIP ->
+            {
+                if (!promoWasVisible)
+                {
+                    throw new IllegalStateException("No promo is offered at '" + step + "'");
+                }
+
+                if (step.action() == Scenario.Action.PROMO_ACCEPT)
+                {
+                    add(catalog.promo().discountedName(), catalog.promo().discountedPrice());
+                }
+            }
+        }
+    }
+
+    private void add(String name, BigDecimal price)
+    {
+        Entry entry = entries.get(name);
+        entries.put(name, new Entry(name, price, entry == null ? 1 : entry.count() + 1));
+    }
+
+    public List<Entry> entries()
+    {
+        return new ArrayList<>(entries.values());
+    }
+
+    public BigDecimal total()
+    {
+        return entries.values().stream()
+                .map(entry -> entry.price().multiply(BigDecimal.valueOf(entry.count())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    public int addsSincePromo()
+    {
+        return addsSincePromo;
+    }
+
+    public boolean isPromoVisible()
+    {
+        return promoVisible;
+    }
+}
@@ -0,0 +1,52 @@
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CartScenarioTest
+{
+    @Test
+    public void testCsvAndJsonLinesAgree()
+    {
+        Scenario csv = ScenarioFiles.parseCsv("promo,add Espresso;add Cappuccino;add Mocha;promo accept,41.00");
+        Scenario json = ScenarioFiles.parseJson(ScenarioFiles.toJson(csv));
+
+        assertEquals(csv, json);
+        assertEquals(csv, ScenarioFiles.parseCsv(ScenarioFiles.toCsv(json)));
+        assertEquals("add Espresso;add Cappuccino", csv.prefixKey(2));
+        assertEquals(new Scenario.Step(Scenario.Action.REMOVE, "(Discounted) Mocha"), Scenario.Step.parse("remove (Discounted) Mocha"));
+    }
+
+    @Test
+    public void testPromoRules()
+    {
+        CartModel model = CartModel.after(Stream.of("add Espresso", "add Espresso", "add Mocha").map(Scenario.Step::parse).toList());
+
+        assertTrue(model.isPromoVisible());
+        model.apply(Scenario.Step.parse("promo accept"));
+        assertFalse(model.isPromoVisible());
+        assertEquals(new BigDecimal("32.00"), model.total());
+
+        assertThrows(IllegalStateException.class, () -> model.apply(Scenario.Step.parse("promo skip")));
+        assertThrows(IllegalStateException.class, () -> model.apply(Scenario.Step.parse("remove Americano")));
+    }
+
+    @Test
+    public void testBundledScenariosMatchTheModel()
+    {
+        for (String resource : List.of("/scenarios/cart-scenarios.csv", "/scenarios/cart-scenarios.jsonl"))
+        {
+            try (Stream<Scenario> scenarios = ScenarioFiles.stream(resource, getClass().getResourceAsStream(resource)))
+            {
+                scenarios.forEach(scenario -> assertEquals(0, scenario.expectedTotal().compareTo(CartModel.after(scenario.steps()).total()),
+                        () -> resource + " " + scenario.name()));
+            }
+        }
+    }
+}
@@ -1,13 +1,15 @@
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
@@ -18,35 +20,37 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+@Tag("browser")
+@ExtendWith(InfrastructureBreaker.class)
 public class CartTest
 {
-    private static FirefoxOptions firefoxOptions;
+    private static Capabilities browserOptions;
     private WebDriver webDriver;
     private WebDriverWait wait;
 
-    private static final String menuUrl = "https://coffee-cart.app/";
-    private static final String cartUrl = "https://coffee-cart.app/cart";
+    private static final CoffeeCatalog catalog = CoffeeCatalog.get();
+    private static final String menuUrl = catalog.url("menu");
+    private static final String cartUrl = catalog.url("cart");
 
     @BeforeAll
     public static void setupClass()
     {
-        WebDriverManager.firefoxdriver().setup();
+        Browser.current().setupDriver();
 
-        firefoxOptions = new FirefoxOptions();
-        firefoxOptions.addArguments("--headless");
+        browserOptions = Drivers.defaultOptions();
     }
 
     @BeforeEach
     public void setup()
     {
-        webDriver = new FirefoxDriver(firefoxOptions);
-        wait = new WebDriverWait(webDriver, Duration.ofSeconds(5));
+        webDriver = Drivers.create(browserOptions);
+        wait = new TimedWait(webDriver, Duration.ofSeconds(5));
     }
 
     @AfterEach
     public void teardown()
     {
-        webDriver.quit();
+        Drivers.quit(webDriver);
     }
 
     private void goToCartTab()
@@ -87,13 +91,13 @@ public class CartTest
     {
         addEveryCoffeeToCart();
 
-        WebElement header = webDriver.findElement(By.cssSelector("li.list-header"));
-        List<WebElement> columns = header.findElements(By.tagName("div"));
+        Element header = DomSnapshot.of(webDriver, "li.list-header").root();
+        Elements columns = header.select("div");
 
         assertTrue(columns.size() >= 3);
-        assertEquals("Item", columns.get(0).getText());
-        assertEquals("Unit", columns.get(1).getText());
-        assertEquals("Total", columns.get(2).getText());
+        assertEquals("Item", columns.get(0).text());
+        assertEquals("Unit", columns.get(1).text());
+        assertEquals("Total", columns.get(2).text());
     }
 
     private List<WebElement> getOrderedItemsEntries()
@@ -101,13 +105,18 @@ public class CartTest
         return webDriver.findElements(By.cssSelector("ul:not(.cart-preview) li.list-item"));
     }
 
+    private Elements getOrderedItemsEntriesSnapshot()
+    {
+        return DomSnapshot.of(webDriver).select("ul:not(.cart-preview) li.list-item");
+    }
+
     @Test
     public void testEntriesNumber()
     {
         addEveryCoffeeToCart();
-        List<WebElement> entryRows = getOrderedItemsEntries();
+        Elements entryRows = getOrderedItemsEntriesSnapshot();
 
-        assertEquals(9, entryRows.size());
+        assertEquals(catalog.size(), entryRows.size());
     }
 
     private String getEntryName(WebElement entry)
@@ -120,21 +129,25 @@ public class CartTest
     private BigDecimal getEntryUnitPrice(WebElement entry)
     {
         WebElement priceSpan = entry.findElement(By.cssSelector("div span.unit-desc"));
-        String priceWithAmount = priceSpan.getText();
 
-        String priceText = priceWithAmount.split("x")[0].trim();
+        return PriceParsing.unitPrice(priceSpan.getText());
+    }
 
-        return new BigDecimal(priceText.substring(1));
+    private BigDecimal getEntryUnitPrice(Element entry)
+    {
+        return PriceParsing.unitPrice(entry.selectFirst("div span.unit-desc").text());
     }
 
     private int getEntryAmount(WebElement entry)
     {
         WebElement amountSpan = entry.findElement(By.cssSelector("div span.unit-desc"));
-        String priceWithAmount = amountSpan.getText();
 
-        String amountText = priceWithAmount.split("x")[1].trim();
+        return PriceParsing.amount(amountSpan.getText());
+    }
 
-        return Integer.parseInt(amountText);
+    private int getEntryAmount(Element entry)
+    {
+        return PriceParsing.amount(entry.selectFirst("div span.unit-desc").text());
     }
 
     private WebElement getAddButton(WebElement entry)
@@ -150,9 +163,13 @@ public class CartTest
     private BigDecimal getEntryTotalPrice(WebElement entry)
     {
         WebElement totalPriceDiv = entry.findElements(By.cssSelector(":scope > div")).get(2);
-        String totalPriceText = totalPriceDiv.getText().substring(1);
 
-        return new BigDecimal(totalPriceText);
+        return PriceParsing.price(totalPriceDiv.getText());
+    }
+
+    private BigDecimal getEntryTotalPrice(Element entry)
+    {
+        return PriceParsing.price(entry.select("> div").get(2).text());
     }
 
     private WebElement getRemoveEntryButton(WebElement entry)
@@ -178,9 +195,9 @@ public class CartTest
     {
         addEveryCoffeeToCart();
 
-        List<WebElement> cartEntries = getOrderedItemsEntries();
+        Elements cartEntries = getOrderedItemsEntriesSnapshot();
 
-        for (WebElement entry : cartEntries)
+        for (Element entry : cartEntries)
         {
             BigDecimal unitPrice = getEntryUnitPrice(entry);
 
@@ -193,9 +210,9 @@ public class CartTest
     {
         addEveryCoffeeToCart();
 
-        List<WebElement> cartEntries = getOrderedItemsEntries();
+        Elements cartEntries = getOrderedItemsEntriesSnapshot();
 
-        for (WebElement entry : cartEntries)
+        for (Element entry : cartEntries)
         {
             int amount = getEntryAmount(entry);
 
@@ -238,9 +255,9 @@ public class CartTest
     {
         addEveryCoffeeToCart();
 
-        List<WebElement> cartEntries = getOrderedItemsEntries();
+        Elements cartEntries = getOrderedItemsEntriesSnapshot();
 
-        for (WebElement entry : cartEntries)
+        for (Element entry : cartEntries)
         {
             BigDecimal unitPrice = getEntryUnitPrice(entry);
             BigDecimal totalPrice = getEntryTotalPrice(entry);
@@ -396,7 +413,7 @@ public class CartTest
         }
 
         String totalPriceText = webDriver.findElement(By.cssSelector("div.pay-container button.pay")).getText();
-        BigDecimal totalPrice = new BigDecimal(totalPriceText.substring("Total: $".length())); // Remove "Total: $" preceding text
+        BigDecimal totalPrice = PriceParsing.price(totalPriceText); // Reads past the "Total: $" preceding text
 
         assertEquals(expectedTotalCartPrice, totalPrice);
     }
@@ -0,0 +1,172 @@
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Order endpoint of the CoffeeCartStandIn. Accepted orders are kept in memory; latency and error rate
+// can be changed at any time to see how the payment modal and snackbar cope with a slow or failing
+// backend.
+//   POST /api/order    accepts an order, 201 or an injected 500
+//   GET  /api/orders   orders received so far
+//   GET  /api/metrics  request, error and latency counters
+public class CheckoutBackend
+{
+    private final List<Map<String, Object>> orders = new CopyOnWriteArrayList<>();
+    private final Random random = new Random(42);
+    private final AtomicLong orderIds = new AtomicLong();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final List<Long> latencies = new ArrayList<>();
+
+    private volatile LatencyDistribution latency = LatencyDistribution.none();
+    private volatile double errorRate;
+    private long startedAt = System.nanoTime();
+
+    public void configure(LatencyDistribution latency, double errorRate)
+    {
+        this.latency = latency;
+        this.errorRate = errorRate;
+    }
+
+    public List<Map<String, Object>> orders()
+    {
+        return List.copyOf(orders);
+    }
+
+    public synchronized void reset()
+    {
+        orders.clear();
+        requests.reset();
+        errors.reset();
+        latencies.clear();
+        startedAt = System.nanoTime();
+        configure(LatencyDistribution.none(), 0);
+    }
+
+    void handle(HttpExchange exchange) throws IOException
+    {
+        try (exchange)
+        {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+
+            if (path.equals("/api/order") && method.equals("POST"))
+            {
+                acceptOrder(exchange);
+            }
+            else if (path.equals("/api/orders") && method.equals("GET"))
+            {
+                respond(exchange, 200, orders());
+            }
+            else if (path.equals("/api/metrics") && method.equals("GET"))
+            {
+                respond(exchange, 200, metrics());
+            }
+            else
+            {
+                respond(exchange, 404, Map.of("error", "not found"));
+            }
+        }
+    }
+
+    private void acceptOrder(HttpExchange exchange) throws IOException
+    {
+        long started = System.nanoTime();
+        requests.increment();
+
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        long delay;
+        boolean fail;
+
+        synchronized (random)
+        {
+            delay = Math.max(0, latency.sampleMillis(random));
+            fail = random.nextDouble() < errorRate;
+        }
+
+        try
+        {
+            Thread.sleep(delay);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        if (fail)
+        {
+            errors.increment();
+            recordLatency(started);
+            respond(exchange, 500, Map.of("error", "injected failure"));
+
+            return;
+        }
+
+        long orderId = orderIds.incrementAndGet();
+        Map<String, Object> order = new LinkedHashMap<>(JsonLines.parse(body));
+        order.put("orderId", orderId);
+        orders.add(order);
+
+        recordLatency(started);
+        respond(exchange, 201, Map.of("orderId", orderId));
+    }
+
+    private synchronized void recordLatency(long startedNanos)
+    {
+        latencies.add(System.nanoTime() - startedNanos);
+    }
+
+    public synchronized Map<String, Object> metrics()
+    {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("requests", requests.sum());
+        metrics.put("errors", errors.sum());
+        metrics.put("orders", orders.size());
+        metrics.put("requestsPerSecond", seconds > 0 ? requests.sum() / seconds : 0);
+        metrics.put("latencyP50Millis", percentileMillis(sorted, 0.50));
+        metrics.put("latencyP95Millis", percentileMillis(sorted, 0.95));
+        metrics.put("latencyMaxMillis", percentileMillis(sorted, 1.0));
+
+        return metrics;
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile)
+    {
+        if (sorted.length == 0)
+        {
+            return 0;
+        }
+
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object body) throws IOException
+    {
+        byte[] bytes = JsonLines.toJson(body).getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+
+        try (OutputStream output = exchange.getResponseBody())
+        {
+            output.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Payment flow against the CoffeeCartStandIn, with the checkout backend made slow or failing on purpose.
+// The tests reconfigure the one stand-in they share, so they run one after another even in parallel runs.
+@Tag("browser")
+@ExtendWith(InfrastructureBreaker.class)
+@Execution(ExecutionMode.SAME_THREAD)
+public class CheckoutStandInTest
+{
+    private static Capabilities browserOptions;
+    private static CoffeeCartStandIn standIn;
+    private WebDriver webDriver;
+    private WebDriverWait wait;
+
+    @BeforeAll
+    public static void setupClass()
+    {
+        Browser.current().setupDriver();
+
+        browserOptions = Drivers.defaultOptions();
+
+        standIn = new CoffeeCartStandIn();
+    }
+
+    @AfterAll
+    public static void teardownClass()
+    {
+        standIn.close();
+    }
+
+    @BeforeEach
+    public void setup()
+    {
+        standIn.checkout().reset();
+
+        webDriver = Drivers.create(browserOptions);
+        wait = new TimedWait(webDriver, Duration.ofSeconds(10));
+
+        webDriver.get(standIn.menuUrl(9, 2));
+    }
+
+    @AfterEach
+    public void teardown()
+    {
+        Drivers.quit(webDriver);
+    }
+
+    private void submitPayment()
+    {
+        webDriver.findElement(By.cssSelector("button.pay")).click();
+
+        wait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector("div.modal")));
+
+        webDriver.findElement(By.id("name")).sendKeys("Jane Doe");
+        webDriver.findElement(By.id("email")).sendKeys("jane@example.com");
+        webDriver.findElement(By.id("promotion")).click();
+        webDriver.findElement(By.id("submit-payment")).click();
+    }
+
+    private WebElement waitForSnackbar()
+    {
+        return wait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector("div.snackbar")));
+    }
+
+    private double lastSubmitMillis()
+    {
+        return ((Number) ((JavascriptExecutor) webDriver).executeScript("return window.__stats.lastSubmitMillis;"))
+                .doubleValue();
+    }
+
+    @Test
+    public void testSuccessfulPaymentIsRecordedByBackend()
+    {
+        submitPayment();
+
+        WebElement snackbar = waitForSnackbar();
+        assertTrue(snackbar.getAttribute("class").contains("success"));
+        assertTrue(webDriver.findElement(By.cssSelector("div.modal")).getAttribute("class").contains("hidden"));
+
+        List<Map<String, Object>> orders = standIn.checkout().orders();
+        assertEquals(1, orders.size());
+        assertEquals("jane@example.com", orders.get(0).get("email"));
+        assertEquals(true, orders.get(0).get("promotion"));
+        assertEquals(2, ((List<?>) orders.get(0).get("items")).size());
+    }
+
+    @Test
+    public void testFailingBackendShowsErrorAndKeepsModalOpen()
+    {
+        standIn.checkout().configure(LatencyDistribution.none(), 1.0);
+
+        submitPayment();
+
+        WebElement snackbar = waitForSnackbar();
+        assertTrue(snackbar.getAttribute("class").contains("error"));
+        assertTrue(webDriver.findElement(By.cssSelector("div.modal")).isDisplayed());
+        assertTrue(standIn.checkout().orders().isEmpty());
+        assertEquals(1L, standIn.checkout().metrics().get("errors"));
+    }
+
+    @Test
+    public void testSlowBackendDelaysSnackbar()
+    {
+        long backendMillis = 1500;
+        standIn.checkout().configure(LatencyDistribution.fixed(backendMillis), 0);
+
+        long started = System.nanoTime();
+        submitPayment();
+        waitForSnackbar();
+        long endToEndMillis = (System.nanoTime() - started) / 1_000_000;
+
+        double submitMillis = lastSubmitMillis();
+        System.out.printf("checkout: backend %d ms, in page %.0f ms, end to end %d ms%n",
+                backendMillis, submitMillis, endToEndMillis);
+
+        assertTrue(submitMillis >= backendMillis);
+        assertTrue(endToEndMillis >= backendMillis);
+        assertEquals(1, standIn.checkout().orders().size());
+    }
+}
@@ -0,0 +1,155 @@
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+// Named app states reached by a setup prefix. The first test on a worker thread runs the prefix and
+// captures the URL (router state), localStorage, sessionStorage and cookies; later tests on that thread
+// restore them in one call instead. The caller's probe decides whether a restore recreated the state.
+// An app that keeps the state in memory only fails it once, after that the prefix always runs for that
+// checkpoint. -Dcoffeecart.checkpoints=false always runs the prefix. The setup time saved per test class
+// is printed and written to target/checkpoints.jsonl at the end of the run.
+public final class Checkpoints
+{
+    private static final boolean enabled = Boolean.parseBoolean(System.getProperty("coffeecart.checkpoints", "true"));
+
+    private static final String captureScript = """
+            const copy = storage => Object.fromEntries(Object.keys(storage).map(key => [key, storage.getItem(key)]));
+            return { local: copy(localStorage), session: copy(sessionStorage) };
+            """;
+    private static final String restoreScript = """
+            const [local, session] = arguments;
+            localStorage.clear();
+            sessionStorage.clear();
+            Object.entries(local).forEach(([key, value]) => localStorage.setItem(key, value));
+            Object.entries(session).forEach(([key, value]) => sessionStorage.setItem(key, value));
+            """;
+
+    private static final ThreadLocal<Map<String, Snapshot>> captured = ThreadLocal.withInitial(HashMap::new);
+    private static final Set<String> unrestorable = ConcurrentHashMap.newKeySet();
+    private static final Map<List<String>, Usage> usage = new ConcurrentHashMap<>();
+
+    private Checkpoints()
+    {
+    }
+
+    private record Snapshot(String startUrl, String url, Map<String, Object> local, Map<String, Object> session,
+                            Set<Cookie> cookies, long prefixNanos)
+    {
+    }
+
+    private static final class Usage
+    {
+        private final LongAdder prefixRuns = new LongAdder();
+        private final LongAdder prefixNanos = new LongAdder();
+        private final LongAdder restores = new LongAdder();
+        private final LongAdder failedRestores = new LongAdder();
+        private final LongAdder savedNanos = new LongAdder();
+    }
+
+    // Brings the app to the named state, by restoring a checkpoint when one passes the probe, otherwise
+    // by running the prefix
+    public static void reach(WebDriver driver, String name, Runnable prefix, BooleanSupplier reached)
+    {
+        Usage counts = usage.computeIfAbsent(List.of(CurrentTest.get().className(), name), key -> new Usage());
+        Snapshot snapshot = isRestorable(name) ? captured.get().get(name) : null;
+
+        if (snapshot != null)
+        {
+            long started = System.nanoTime();
+
+            if (restore(driver, snapshot, reached))
+            {
+                counts.restores.increment();
+                counts.savedNanos.add(snapshot.prefixNanos() - (System.nanoTime() - started));
+
+                return;
+            }
+
+            unrestorable.add(name);
+            counts.failedRestores.increment();
+            counts.savedNanos.add(-(System.nanoTime() - started));
+
+            // Back to where the prefix expects to start, without the restored storage
+            ((JavascriptExecutor) driver).executeScript(restoreScript, Map.of(), Map.of());
+            driver.manage().deleteAllCookies();
+            driver.get(snapshot.startUrl());
+        }
+
+        String startUrl = driver.getCurrentUrl();
+        long started = System.nanoTime();
+
+        prefix.run();
+
+        long prefixNanos = System.nanoTime() - started;
+        counts.prefixRuns.increment();
+        counts.prefixNanos.add(prefixNanos);
+
+        if (isRestorable(name))
+        {
+            captured.get().put(name, capture(driver, startUrl, prefixNanos));
+        }
+    }
+
+    private static boolean isRestorable(String name)
+    {
+        return enabled && !unrestorable.contains(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Snapshot capture(WebDriver driver, String startUrl, long prefixNanos)
+    {
+        Map<String, Object> storage = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(captureScript);
+
+        return new Snapshot(startUrl, driver.getCurrentUrl(), (Map<String, Object>) storage.get("local"),
+                (Map<String, Object>) storage.get("session"), driver.manage().getCookies(), prefixNanos);
+    }
+
+    private static boolean restore(WebDriver driver, Snapshot snapshot, BooleanSupplier reached)
+    {
+        try
+        {
+            // Storage and cookies belong to the origin, the test starts on the same one the snapshot was taken on
+            ((JavascriptExecutor) driver).executeScript(restoreScript, snapshot.local(), snapshot.session());
+            driver.manage().deleteAllCookies();
+            snapshot.cookies().forEach(driver.manage()::addCookie);
+            driver.get(snapshot.url());
+
+            return reached.getAsBoolean();
+        }
+        catch (WebDriverException e)
+        {
+            return false;
+        }
+    }
+
+    public static List<Map<String, Object>> summary()
+    {
+        return usage.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<List<String>, Usage> entry) -> entry.getKey().toString()))
+                .map(entry -> {
+                    Usage counts = entry.getValue();
+                    Map<String, Object> record = new LinkedHashMap<>();
+                    record.put("class", entry.getKey().get(0));
+                    record.put("checkpoint", entry.getKey().get(1));
+                    record.put("prefixRuns", counts.prefixRuns.sum());
+                    record.put("meanPrefixMillis", counts.prefixRuns.sum() == 0 ? 0 : counts.prefixNanos.sum() / counts.prefixRuns.sum() / 1_000_000.0);
+                    record.put("restores", counts.restores.sum());
+                    record.put("failedRestores", counts.failedRestores.sum());
+                    record.put("savedMillis", counts.savedNanos.sum() / 1_000_000.0);
+
+                    return record;
+                })
+                .toList();
+    }
+}
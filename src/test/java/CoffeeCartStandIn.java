@@ -0,0 +1,107 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+// Local stand-in for coffee-cart.app serving a single page app with the same markup hooks as the real
+// one, so benchmarks can inject menus and carts of any size without depending on the live site.
+public class CoffeeCartStandIn implements AutoCloseable
+{
+    private static final List<Map<String, Object>> defaultMenu = CoffeeCatalog.get().stream()
+            .map(coffee -> Map.<String, Object>of("name", coffee.name(), "price", coffee.price().doubleValue()))
+            .toList();
+    private static final Map<String, Object> promo = Map.of(
+            "everyItems", CoffeeCatalog.get().promo().everyItems(),
+            "coffee", CoffeeCatalog.get().promo().coffee().name(),
+            "price", CoffeeCatalog.get().promo().discountedPrice().doubleValue(),
+            "prefix", CoffeeCatalog.get().promo().discountedPrefix());
+
+    private final HttpServer server;
+    private final byte[] page;
+    private final CheckoutBackend checkout = new CheckoutBackend();
+
+    public CoffeeCartStandIn()
+    {
+        try
+        {
+            page = loadPage();
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        server.createContext("/", this::servePage);
+        server.createContext("/api/", checkout::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    public String baseUrl()
+    {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    public CheckoutBackend checkout()
+    {
+        return checkout;
+    }
+
+    public String menuUrl(int items, int cartItems)
+    {
+        return baseUrl() + "?items=" + items + "&cart=" + cartItems;
+    }
+
+    public String cartUrl(int items, int cartItems)
+    {
+        return baseUrl() + "cart?items=" + items + "&cart=" + cartItems;
+    }
+
+    @Override
+    public void close()
+    {
+        server.stop(0);
+    }
+
+    private void servePage(HttpExchange exchange) throws IOException
+    {
+        try (exchange)
+        {
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, page.length);
+
+            try (OutputStream body = exchange.getResponseBody())
+            {
+                body.write(page);
+            }
+        }
+    }
+
+    private static byte[] loadPage() throws IOException
+    {
+        try (InputStream input = CoffeeCartStandIn.class.getResourceAsStream("/standin/index.html"))
+        {
+            if (input == null)
+            {
+                throw new IOException("Missing resource /standin/index.html");
+            }
+
+            String html = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+
+            return html.replace("__MENU__", JsonLines.toJson(defaultMenu))
+                    .replace("__PROMO__", JsonLines.toJson(promo))
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+// What coffee-cart.app sells and where: coffees in menu order with prices and translations, the promo
+// rule and the routes. Loaded once per JVM from /coffee-catalog.json and immutable afterwards, so parallel
+// tests and parameterized sources share one copy. -Dcoffeecart.baseUrl points the routes at another
+// deployment, e.g. the CoffeeCartStandIn.
+public final class CoffeeCatalog
+{
+    private static final CoffeeCatalog instance = load("/coffee-catalog.json");
+
+    private final String baseUrl;
+    private final Map<String, String> routes;
+    private final List<Coffee> coffees;
+    private final Map<String, Coffee> byName;
+    private final Map<String, Coffee> byTranslation;
+    private final Promo promo;
+
+    public record Coffee(int position, String name, BigDecimal price, Map<String, String> translations)
+    {
+        public String name(String language)
+        {
+            String translation = translations.get(language);
+
+            if (translation == null)
+            {
+                throw new NoSuchElementException("No '" + language + "' translation of " + name);
+            }
+
+            return translation;
+        }
+    }
+
+    // Every everyItems-th coffee added offers one promo coffee at the discounted price
+    public record Promo(int everyItems, Coffee coffee, BigDecimal discountedPrice, String discountedPrefix)
+    {
+        // Cart entry name of the promo coffee, e.g. "(Discounted) Mocha"
+        public String discountedName()
+        {
+            return discountedPrefix + coffee.name();
+        }
+    }
+
+    private CoffeeCatalog(String baseUrl, Map<String, String> routes, List<Coffee> coffees, Map<String, Object> promo)
+    {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.routes = routes;
+        this.coffees = coffees;
+
+        Map<String, Coffee> byName = new HashMap<>();
+        Map<String, Coffee> byTranslation = new HashMap<>();
+
+        for (Coffee coffee : coffees)
+        {
+            byName.put(coffee.name(), coffee);
+            coffee.translations().values().forEach(translation -> byTranslation.put(translation, coffee));
+        }
+
+        this.byName = Map.copyOf(byName);
+        this.byTranslation = Map.copyOf(byTranslation);
+        this.promo = new Promo(((Number) promo.get("everyItems")).intValue(), byName((String) promo.get("coffee")),
+                new BigDecimal((String) promo.get("discountedPrice")), (String) promo.get("discountedPrefix"));
+    }
+
+    public static CoffeeCatalog get()
+    {
+        return instance;
+    }
+
+    @SuppressWarnings("unchecked")
+    static CoffeeCatalog load(String resource)
+    {
+        Map<String, Object> data;
+
+        try (InputStream input = CoffeeCatalog.class.getResourceAsStream(resource))
+        {
+            if (input == null)
+            {
+                throw new IOException("Missing resource " + resource);
+            }
+
+            data = JsonLines.parse(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        List<Coffee> coffees = new ArrayList<>();
+
+        for (Object entry : (List<Object>) data.get("coffees"))
+        {
+            Map<String, Object> coffee = (Map<String, Object>) entry;
+
+            coffees.add(new Coffee(coffees.size(), (String) coffee.get("name"), new BigDecimal((String) coffee.get("price")),
+                    Map.copyOf((Map<String, String>) coffee.getOrDefault("translations", Map.of()))));
+        }
+
+        String baseUrl = System.getProperty("coffeecart.baseUrl", (String) data.get("baseUrl"));
+
+        return new CoffeeCatalog(baseUrl, new LinkedHashMap<>((Map<String, String>) data.get("routes")), List.copyOf(coffees),
+                (Map<String, Object>) data.get("promo"));
+    }
+
+    public List<Coffee> coffees()
+    {
+        return coffees;
+    }
+
+    // For @MethodSource
+    public Stream<Coffee> stream()
+    {
+        return coffees.stream();
+    }
+
+    public int size()
+    {
+        return coffees.size();
+    }
+
+    public Coffee get(int position)
+    {
+        return coffees.get(position);
+    }
+
+    public Coffee byName(String name)
+    {
+        Coffee coffee = byName.get(name);
+
+        if (coffee == null)
+        {
+            throw new NoSuchElementException("No coffee named " + name);
+        }
+
+        return coffee;
+    }
+
+    public boolean contains(String name)
+    {
+        return byName.containsKey(name);
+    }
+
+    public Coffee byTranslation(String translatedName)
+    {
+        Coffee coffee = byTranslation.get(translatedName);
+
+        if (coffee == null)
+        {
+            throw new NoSuchElementException("No coffee translated as " + translatedName);
+        }
+
+        return coffee;
+    }
+
+    // Names in menu order
+    public List<String> names()
+    {
+        return coffees.stream().map(Coffee::name).toList();
+    }
+
+    public List<String> names(String language)
+    {
+        return coffees.stream().map(coffee -> coffee.name(language)).toList();
+    }
+
+    public Promo promo()
+    {
+        return promo;
+    }
+
+    public String baseUrl()
+    {
+        return baseUrl;
+    }
+
+    // Absolute URL of a route by its key (menu, cart, github)
+    public String url(String route)
+    {
+        String path = routes.get(route);
+
+        if (path == null)
+        {
+            throw new NoSuchElementException("No route " + route + ", expected one of " + routes.keySet());
+        }
+
+        return baseUrl + path;
+    }
+
+    // Absolute URLs of all routes in navigation order
+    public List<String> urls()
+    {
+        return routes.keySet().stream().map(this::url).toList();
+    }
+}
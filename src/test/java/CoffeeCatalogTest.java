@@ -0,0 +1,42 @@
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CoffeeCatalogTest
+{
+    private final CoffeeCatalog catalog = CoffeeCatalog.get();
+
+    @Test
+    public void testLookups()
+    {
+        assertEquals(9, catalog.size());
+        assertEquals("Espresso", catalog.get(0).name());
+        assertSame(catalog.byName("Mocha"), catalog.byTranslation("摩卡"));
+        assertEquals(3, catalog.byName("Mocha").position());
+        assertEquals(new BigDecimal("19.00"), catalog.byName("Cappuccino").price());
+        assertEquals("半拿铁", catalog.get(8).name("zh"));
+        assertThrows(NoSuchElementException.class, () -> catalog.byName("Decaf"));
+    }
+
+    @Test
+    public void testPromoAndRoutes()
+    {
+        assertEquals(3, catalog.promo().everyItems());
+        assertEquals(new BigDecimal("4.00"), catalog.promo().discountedPrice());
+        assertEquals("(Discounted) Mocha", catalog.promo().discountedName());
+        assertEquals(catalog.baseUrl() + "/cart", catalog.url("cart"));
+        assertEquals(3, catalog.urls().size());
+    }
+
+    @Test
+    public void testImmutable()
+    {
+        assertThrows(UnsupportedOperationException.class, () -> catalog.coffees().clear());
+        assertThrows(UnsupportedOperationException.class, () -> catalog.get(0).translations().put("de", "Espresso"));
+    }
+}
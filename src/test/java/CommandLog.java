@@ -0,0 +1,398 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binary recording of the WebDriver commands one test issued, written by CommandRecorder and read by
+// CommandReplay.
+//
+//   header   int magic "CCRC", short version, string test class, string test method, long recorded at
+//   command  byte 1, string target kind, string method, varint target handle + 1 (0: not an element),
+//            varint argument count, arguments, result, varlong latency nanos, varlong nanos since the
+//            previous command, boolean failed
+//   end      byte 0
+//
+// Strings go through a table: varint 0 is followed by a new string (modified UTF-8), any other n
+// refers to the (n - 1)th string seen so far. Commands repeat the same few selectors, scripts and
+// method names, so most strings cost a single byte.
+public final class CommandLog
+{
+    private static final int magic = 0x43435243;
+    private static final short version = 1;
+    private static final int maxStringLength = 4096;
+
+    private static final byte endTag = 0;
+    private static final byte commandTag = 1;
+
+    private static final byte nullValue = 0;
+    private static final byte stringValue = 1;
+    private static final byte longValue = 2;
+    private static final byte doubleValue = 3;
+    private static final byte trueValue = 4;
+    private static final byte falseValue = 5;
+    private static final byte elementValue = 6;
+    private static final byte listValue = 7;
+    private static final byte locatorValue = 8;
+    private static final byte durationValue = 9;
+    private static final byte actionsValue = 10;
+    private static final byte unsupportedValue = 11;
+
+    private CommandLog()
+    {
+    }
+
+    // Values in a recording are null, String, Long, Double, Boolean, List<Object>, Duration or one of these
+    public record Element(int handle)
+    {
+    }
+
+    public record Locator(String description)
+    {
+    }
+
+    public record Actions(String json)
+    {
+    }
+
+    public record Unsupported(String description)
+    {
+    }
+
+    public record Command(String targetKind, String method, int targetHandle, List<Object> arguments, Object result,
+                          long latencyNanos, long gapNanos, boolean failed)
+    {
+        public static final int noHandle = -1;
+
+        public String describe()
+        {
+            return targetKind + "." + method;
+        }
+    }
+
+    public record Recording(String testClass, String testMethod, long recordedAt, List<Command> commands)
+    {
+        public String testId()
+        {
+            return testClass + "#" + testMethod;
+        }
+    }
+
+    public static Writer create(Path file, CurrentTest test)
+    {
+        try
+        {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+
+            return new Writer(new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file))), test);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Recording read(Path file)
+    {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+        {
+            if (input.readInt() != magic)
+            {
+                throw new IOException(file + " is not a command recording");
+            }
+
+            short fileVersion = input.readShort();
+            if (fileVersion != version)
+            {
+                throw new IOException(file + " has unsupported version " + fileVersion);
+            }
+
+            List<String> strings = new ArrayList<>();
+            String testClass = readString(input, strings);
+            String testMethod = readString(input, strings);
+            long recordedAt = input.readLong();
+            List<Command> commands = new ArrayList<>();
+
+            try
+            {
+                while (input.readByte() == commandTag)
+                {
+                    String targetKind = readString(input, strings);
+                    String method = readString(input, strings);
+                    int targetHandle = readVarInt(input) - 1;
+                    int argumentCount = readVarInt(input);
+                    List<Object> arguments = new ArrayList<>(argumentCount);
+
+                    for (int i = 0; i < argumentCount; i++)
+                    {
+                        arguments.add(readValue(input, strings));
+                    }
+
+                    Object result = readValue(input, strings);
+                    long latencyNanos = readVarLong(input);
+                    long gapNanos = readVarLong(input);
+                    boolean failed = input.readBoolean();
+
+                    commands.add(new Command(targetKind, method, targetHandle, arguments, result, latencyNanos, gapNanos, failed));
+                }
+            }
+            catch (EOFException e)
+            {
+                // A killed run leaves the recording without its end tag, the commands before it are complete
+            }
+
+            return new Recording(testClass, testMethod, recordedAt, commands);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static final class Writer implements AutoCloseable
+    {
+        private final DataOutputStream output;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private int commandCount;
+
+        private Writer(DataOutputStream output, CurrentTest test) throws IOException
+        {
+            this.output = output;
+
+            output.writeInt(magic);
+            output.writeShort(version);
+            writeString(test.className());
+            writeString(test.isInvocation() ? test.methodName() + " " + test.displayName() : test.methodName());
+            output.writeLong(System.currentTimeMillis());
+        }
+
+        public void write(Command command)
+        {
+            try
+            {
+                output.writeByte(commandTag);
+                writeString(command.targetKind());
+                writeString(command.method());
+                writeVarInt(command.targetHandle() + 1);
+                writeVarInt(command.arguments().size());
+
+                for (Object argument : command.arguments())
+                {
+                    writeValue(argument);
+                }
+
+                writeValue(command.result());
+                writeVarLong(command.latencyNanos());
+                writeVarLong(command.gapNanos());
+                output.writeBoolean(command.failed());
+
+                commandCount++;
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public int commandCount()
+        {
+            return commandCount;
+        }
+
+        @Override
+        public void close()
+        {
+            try
+            {
+                output.writeByte(endTag);
+                output.close();
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeValue(Object value) throws IOException
+        {
+            switch (value)
+            {
+                case null -> output.writeByte(nullValue);
+                case String string ->
+                {
+                    output.writeByte(stringValue);
+                    writeString(string);
+                }
+                case Long number ->
+                {
+                    output.writeByte(longValue);
+                    writeVarLong(zigZag(number));
+                }
+                case Double number ->
+                {
+                    output.writeByte(doubleValue);
+                    output.writeDouble(number);
+                }
+                case Boolean bool -> output.writeByte(bool ? trueValue : falseValue);
+                case Element element ->
+                {
+                    output.writeByte(elementValue);
+                    writeVarInt(element.handle());
+                }
+                case List<?> list ->
+                {
+                    output.writeByte(listValue);
+                    writeVarInt(list.size());
+                    for (Object item : list)
+                    {
+                        writeValue(item);
+                    }
+                }
+                case Locator locator ->
+                {
+                    output.writeByte(locatorValue);
+                    writeString(locator.description());
+                }
+                case Duration duration ->
+                {
+                    output.writeByte(durationValue);
+                    writeVarLong(duration.toNanos());
+                }
+                case Actions actions ->
+                {
+                    output.writeByte(actionsValue);
+                    writeString(actions.json());
+                }
+                case Unsupported unsupported ->
+                {
+                    output.writeByte(unsupportedValue);
+                    writeString(unsupported.description());
+                }
+                default -> throw new IllegalArgumentException("Cannot record " + value.getClass().getName());
+            }
+        }
+
+        private void writeString(String value) throws IOException
+        {
+            // Page sources and large script results are cut, they are recorded for reference only
+            String string = value.length() > maxStringLength ? value.substring(0, maxStringLength) : value;
+            Integer index = strings.get(string);
+
+            if (index != null)
+            {
+                writeVarInt(index + 1);
+                return;
+            }
+
+            strings.put(string, strings.size());
+            writeVarInt(0);
+            output.writeUTF(string);
+        }
+
+        private void writeVarInt(int value) throws IOException
+        {
+            writeVarLong(value);
+        }
+
+        private void writeVarLong(long value) throws IOException
+        {
+            while ((value & ~0x7FL) != 0)
+            {
+                output.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+
+            output.writeByte((int) value);
+        }
+    }
+
+    private static Object readValue(DataInputStream input, List<String> strings) throws IOException
+    {
+        byte tag = input.readByte();
+
+        return switch (tag)
+        {
+            case nullValue -> null;
+            case stringValue -> readString(input, strings);
+            case longValue -> unZigZag(readVarLong(input));
+            case doubleValue -> input.readDouble();
+            case trueValue -> true;
+            case falseValue -> false;
+            case elementValue -> new Element(readVarInt(input));
+            case listValue ->
+            {
+                int size = readVarInt(input);
+                List<Object> list = new ArrayList<>(size);
+
+                for (int i = 0; i < size; i++)
+                {
+                    list.add(readValue(input, strings));
+                }
+
+                yield list;
+            }
+            case locatorValue -> new Locator(readString(input, strings));
+            case durationValue -> Duration.ofNanos(readVarLong(input));
+            case actionsValue -> new Actions(readString(input, strings));
+            case unsupportedValue -> new Unsupported(readString(input, strings));
+            default -> throw new IOException("Unknown value tag " + tag);
+        };
+    }
+
+    private static String readString(DataInputStream input, List<String> strings) throws IOException
+    {
+        int reference = readVarInt(input);
+
+        if (reference == 0)
+        {
+            String string = input.readUTF();
+            strings.add(string);
+
+            return string;
+        }
+
+        return strings.get(reference - 1);
+    }
+
+    private static int readVarInt(DataInputStream input) throws IOException
+    {
+        return (int) readVarLong(input);
+    }
+
+    private static long readVarLong(DataInputStream input) throws IOException
+    {
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7)
+        {
+            byte next = input.readByte();
+            value |= (long) (next & 0x7F) << shift;
+
+            if ((next & 0x80) == 0)
+            {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed varint");
+    }
+
+    private static long zigZag(long value)
+    {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,111 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.By;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CommandLogTest
+{
+    private static final CurrentTest test = new CurrentTest("MenuTest", "testOrderingThreeCoffeesShowsPromo", "testOrderingThreeCoffeesShowsPromo()");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testCommandsSurviveRoundTrip()
+    {
+        Path file = CommandRecording.file(directory, test);
+        List<CommandLog.Command> commands = List.of(
+                new CommandLog.Command("Navigation", "to", CommandLog.Command.noHandle, List.of("https://coffee-cart.app/"),
+                        null, 812_000_000L, 0, false),
+                new CommandLog.Command("WebDriver", "findElements", CommandLog.Command.noHandle,
+                        List.of(new CommandLog.Locator("By.cssSelector: li[data-v-a9662a08]")),
+                        List.of(new CommandLog.Element(0), new CommandLog.Element(1)), 9_500_000L, 1_200L, false),
+                new CommandLog.Command("WebElement", "getText", 1, List.of(), "Espresso $10.00", 3_000_000L, 0, false),
+                new CommandLog.Command("WebDriver", "executeScript", CommandLog.Command.noHandle,
+                        List.of("return arguments[0].length;", List.of(-3L, 2.5, true)), 3L, 1_000_000L, 0, false),
+                new CommandLog.Command("Timeouts", "implicitlyWait", CommandLog.Command.noHandle,
+                        List.of(Duration.ofSeconds(2)), new CommandLog.Unsupported("RemoteTimeouts"), 500_000L, 0, false),
+                new CommandLog.Command("WebDriver", "findElement", CommandLog.Command.noHandle,
+                        List.of(new CommandLog.Locator("By.cssSelector: li[data-v-a9662a08]")),
+                        "NoSuchElementException", 4_000_000L, 0, true));
+
+        try (CommandLog.Writer writer = CommandLog.create(file, test))
+        {
+            commands.forEach(writer::write);
+        }
+
+        CommandLog.Recording recording = CommandLog.read(file);
+
+        assertEquals(test.id(), recording.testId());
+        assertEquals(commands, recording.commands());
+    }
+
+    @Test
+    public void testRepeatedStringsAreStoredOnce() throws Exception
+    {
+        Path file = CommandRecording.file(directory, test);
+        CommandLog.Command poll = new CommandLog.Command("WebDriver", "findElements", CommandLog.Command.noHandle,
+                List.of(new CommandLog.Locator("By.cssSelector: div.promo button.yes")), List.of(), 2_000_000L, 5_000_000L, false);
+
+        try (CommandLog.Writer writer = CommandLog.create(file, test))
+        {
+            for (int i = 0; i < 1000; i++)
+            {
+                writer.write(poll);
+            }
+        }
+
+        assertTrue(Files.size(file) < 20_000, "recording takes " + Files.size(file) + " bytes");
+        assertEquals(1000, CommandLog.read(file).commands().size());
+    }
+
+    @Test
+    public void testTruncatedRecordingKeepsCompleteCommands() throws Exception
+    {
+        Path file = CommandRecording.file(directory, test);
+
+        try (CommandLog.Writer writer = CommandLog.create(file, test))
+        {
+            writer.write(new CommandLog.Command("WebDriver", "getTitle", CommandLog.Command.noHandle, List.of(), "Coffee cart", 1_000L, 0, false));
+        }
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertEquals(1, CommandLog.read(file).commands().size());
+    }
+
+    @Test
+    public void testLocatorsAreRebuiltFromTheirDescription()
+    {
+        By selector = By.cssSelector("ul[data-v-bb7b5941] a");
+
+        assertEquals(selector, CommandReplay.locator(selector.toString()));
+        assertEquals(By.id("submit-payment"), CommandReplay.locator(By.id("submit-payment").toString()));
+        assertEquals(By.xpath("//h4[text()='Espresso']"), CommandReplay.locator(By.xpath("//h4[text()='Espresso']").toString()));
+        assertThrows(IllegalArgumentException.class, () -> CommandReplay.locator("RelativeBy: {}"));
+    }
+
+    @Test
+    public void testParameterizedInvocationsGetTheirOwnFiles()
+    {
+        CurrentTest first = new CurrentTest("NavigationTest", "testLinkIsActive", "[1] https://coffee-cart.app/");
+        CurrentTest second = new CurrentTest("NavigationTest", "testLinkIsActive", "[2] https://coffee-cart.app/cart");
+
+        assertEquals("MenuTest#testOrderingThreeCoffeesShowsPromo.cmdrec",
+                CommandRecording.file(directory, test).getFileName().toString());
+        assertEquals("NavigationTest#testLinkIsActive[_1_https_coffee-cart.app_].cmdrec",
+                CommandRecording.file(directory, first).getFileName().toString());
+        assertNotEquals(CommandRecording.file(directory, first), CommandRecording.file(directory, second));
+    }
+}
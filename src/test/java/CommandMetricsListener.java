@@ -0,0 +1,52 @@
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+// Feeds SuiteMetrics with the rate and latency of WebDriver commands. Only the outermost call of a
+// thread is timed, like PhaseTimings does.
+public class CommandMetricsListener implements WebDriverListener
+{
+    private static final ThreadLocal<long[]> outermost = ThreadLocal.withInitial(() -> new long[2]);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args)
+    {
+        long[] call = outermost.get();
+
+        if (call[0]++ == 0)
+        {
+            call[1] = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result)
+    {
+        finish(false);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e)
+    {
+        finish(true);
+    }
+
+    private static void finish(boolean failed)
+    {
+        long[] call = outermost.get();
+
+        if (call[0] == 0 || --call[0] > 0)
+        {
+            return;
+        }
+
+        SuiteMetrics.commands.increment();
+        SuiteMetrics.commandDuration.recordNanos(System.nanoTime() - call[1]);
+
+        if (failed)
+        {
+            SuiteMetrics.commandErrors.increment();
+        }
+    }
+}
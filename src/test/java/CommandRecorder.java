@@ -0,0 +1,133 @@
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Sequence;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Only attached to drivers when CommandRecording is enabled.
+public class CommandRecorder implements WebDriverListener
+{
+    // Plumbing of the decorator and of the tests themselves, none of it reaches the browser
+    private static final Set<String> ignoredMethods = Set.of("equals", "hashCode", "toString",
+            "getWrappedDriver", "getWrappedElement", "quit", "close");
+
+    private final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args)
+    {
+        startTimes.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result)
+    {
+        record(target, method, args, result, false);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e)
+    {
+        record(target, method, args, e.getTargetException().getClass().getSimpleName(), true);
+    }
+
+    private void record(Object target, Method method, Object[] args, Object result, boolean failed)
+    {
+        Long started = startTimes.get().poll();
+
+        if (started == null || ignoredMethods.contains(method.getName()))
+        {
+            return;
+        }
+
+        long ended = System.nanoTime();
+        CommandRecording.Active recording = CommandRecording.current();
+
+        if (recording == null)
+        {
+            return;
+        }
+
+        List<Object> arguments = new ArrayList<>();
+        if (args != null)
+        {
+            for (Object arg : args)
+            {
+                arguments.add(value(recording, arg));
+            }
+        }
+
+        recording.writer().write(new CommandLog.Command(WebDriverCalls.targetKind(target), method.getName(),
+                recording.handleOf(target), arguments, value(recording, result), ended - started,
+                recording.gapBefore(started, ended), failed));
+    }
+
+    private static Object value(CommandRecording.Active recording, Object value)
+    {
+        return switch (value)
+        {
+            case null -> null;
+            case String string -> string;
+            case CharSequence chars -> chars.toString();
+            case Boolean bool -> bool;
+            case Double number -> number;
+            case Float number -> number.doubleValue();
+            case Number number -> number.longValue();
+            case WebElement element -> recording.handle(element);
+            case By by -> new CommandLog.Locator(by.toString());
+            case Duration duration -> duration;
+            case URL url -> url.toString();
+            case byte[] bytes -> new CommandLog.Unsupported("byte[" + bytes.length + "]");
+            case Object[] array -> values(recording, Arrays.asList(array));
+            case Collection<?> collection when !collection.isEmpty() && collection.iterator().next() instanceof Sequence ->
+                    new CommandLog.Actions(JsonLines.toJson(collection.stream()
+                            .map(sequence -> withHandles(recording, ((Sequence) sequence).encode()))
+                            .toList()));
+            case Collection<?> collection -> values(recording, collection);
+            case Map<?, ?> map -> new CommandLog.Unsupported(map.toString());
+            default -> new CommandLog.Unsupported(value.getClass().getSimpleName() + ": " + value);
+        };
+    }
+
+    private static List<Object> values(CommandRecording.Active recording, Collection<?> values)
+    {
+        return values.stream().map(item -> value(recording, item)).toList();
+    }
+
+    // Element origins of pointer moves become {"handle": n} so the actions can be rebuilt on replay
+    private static Object withHandles(CommandRecording.Active recording, Object json)
+    {
+        if (json instanceof WebElement element)
+        {
+            return Map.of("handle", recording.handle(element).handle());
+        }
+
+        if (json instanceof Map<?, ?> map)
+        {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            map.forEach((key, value) -> copy.put(String.valueOf(key), withHandles(recording, value)));
+
+            return copy;
+        }
+
+        if (json instanceof Collection<?> collection)
+        {
+            return collection.stream().map(item -> withHandles(recording, item)).toList();
+        }
+
+        return json;
+    }
+}
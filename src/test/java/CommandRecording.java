@@ -0,0 +1,130 @@
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.remote.RemoteWebElement;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// -Dcoffeecart.record=<dir> writes the WebDriver commands of every test to <dir>/<class>#<method>.cmdrec,
+// each invocation of a parameterized test to its own <class>#<method>[<display name>].cmdrec,
+// -Dcoffeecart.record.filter=<regex> limits that to tests whose class#method id matches.
+public final class CommandRecording
+{
+    private static final String directory = System.getProperty("coffeecart.record");
+    private static final Pattern filter = Pattern.compile(System.getProperty("coffeecart.record.filter", ".*"));
+    private static final ThreadLocal<Active> active = new ThreadLocal<>();
+
+    private CommandRecording()
+    {
+    }
+
+    public static boolean isEnabled()
+    {
+        return directory != null && !directory.isBlank() && !directory.equals("false");
+    }
+
+    public static Path file(Path directory, CurrentTest test)
+    {
+        if (!test.isInvocation())
+        {
+            return directory.resolve(test.id() + ".cmdrec");
+        }
+
+        String displayName = test.displayName().replaceAll("[^\\w.-]+", "_");
+
+        return directory.resolve(test.id() + "[" + displayName.substring(0, Math.min(displayName.length(), 80)) + "].cmdrec");
+    }
+
+    // Writer of the test running on this thread, or null when it is not being recorded
+    static Active current()
+    {
+        CurrentTest test = CurrentTest.get();
+        Active recording = active.get();
+
+        if (recording != null && recording.test().equals(test))
+        {
+            return recording;
+        }
+
+        finishTest();
+
+        if (!test.isKnown() || !filter.matcher(test.id()).matches())
+        {
+            return null;
+        }
+
+        recording = new Active(test, CommandLog.create(file(Path.of(directory), test), test));
+        active.set(recording);
+
+        return recording;
+    }
+
+    static void finishTest()
+    {
+        Active recording = active.get();
+
+        if (recording != null)
+        {
+            active.remove();
+            recording.writer().close();
+        }
+    }
+
+    static final class Active
+    {
+        private final CurrentTest test;
+        private final CommandLog.Writer writer;
+        private final Map<String, Integer> handles = new HashMap<>();
+        private long lastCommandEnd;
+
+        private Active(CurrentTest test, CommandLog.Writer writer)
+        {
+            this.test = test;
+            this.writer = writer;
+        }
+
+        CurrentTest test()
+        {
+            return test;
+        }
+
+        CommandLog.Writer writer()
+        {
+            return writer;
+        }
+
+        // Elements are numbered in the order the test first sees them, replay maps them back the same way
+        CommandLog.Element handle(WebElement element)
+        {
+            return new CommandLog.Element(handles.computeIfAbsent(elementId(element), id -> handles.size()));
+        }
+
+        int handleOf(Object target)
+        {
+            return target instanceof WebElement element ? handle(element).handle() : CommandLog.Command.noHandle;
+        }
+
+        // Time the test spent between its previous command and one that started at startedNanos
+        long gapBefore(long startedNanos, long endedNanos)
+        {
+            long gap = lastCommandEnd == 0 ? 0 : Math.max(0, startedNanos - lastCommandEnd);
+            lastCommandEnd = endedNanos;
+
+            return gap;
+        }
+    }
+
+    static String elementId(WebElement element)
+    {
+        WebElement unwrapped = element;
+
+        while (unwrapped instanceof WrapsElement wrapper && wrapper.getWrappedElement() != unwrapped)
+        {
+            unwrapped = wrapper.getWrappedElement();
+        }
+
+        return unwrapped instanceof RemoteWebElement remote ? remote.getId() : String.valueOf(System.identityHashCode(unwrapped));
+    }
+}
@@ -0,0 +1,16 @@
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+
+// Closes the recording of each finished test, see CommandRecording.
+public class CommandRecordingListener implements TestExecutionListener
+{
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult)
+    {
+        if (testIdentifier.isTest() && CommandRecording.isEnabled())
+        {
+            CommandRecording.finishTest();
+        }
+    }
+}
@@ -0,0 +1,519 @@
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Interaction;
+import org.openqa.selenium.interactions.KeyInput;
+import org.openqa.selenium.interactions.Pause;
+import org.openqa.selenium.interactions.PointerInput;
+import org.openqa.selenium.interactions.Sequence;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Usage: java CommandReplay <recording.cmdrec | directory> ... [--baseUrl=<url>] [--threshold=0.5]
+//                           [--minDeltaMillis=20] [--repeats=3]
+// Replays recorded command streams (see CommandRecording) in fresh sessions, keeping the recorded pauses
+// between commands, and compares the median latency of each command with the recording. Commands that
+// got slower by more than the threshold (a ratio) and the minimum delta are reported as regressions and
+// make the exit code 1. --baseUrl points recorded navigations at another deployment of the app.
+// Every command ends up in target/replay-report.jsonl (-Dcoffeecart.replay.file).
+public class CommandReplay
+{
+    private static final Json json = new Json();
+    private static final long skipped = Long.MIN_VALUE;
+
+    private final String baseUrl;
+
+    private WebDriver driver;
+    private Map<Integer, WebElement> elements;
+
+    private CommandReplay(String baseUrl)
+    {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args)
+    {
+        List<Path> recordings = new ArrayList<>();
+        String baseUrl = null;
+        double threshold = 0.5;
+        double minDeltaMillis = 20;
+        int repeats = 3;
+
+        for (String arg : args)
+        {
+            if (arg.startsWith("--baseUrl="))
+            {
+                baseUrl = arg.substring("--baseUrl=".length());
+            }
+            else if (arg.startsWith("--threshold="))
+            {
+                threshold = Double.parseDouble(arg.substring("--threshold=".length()));
+            }
+            else if (arg.startsWith("--minDeltaMillis="))
+            {
+                minDeltaMillis = Double.parseDouble(arg.substring("--minDeltaMillis=".length()));
+            }
+            else if (arg.startsWith("--repeats="))
+            {
+                repeats = Integer.parseInt(arg.substring("--repeats=".length()));
+            }
+            else
+            {
+                recordings.addAll(recordingFiles(Path.of(arg)));
+            }
+        }
+
+        Browser.current().setupDriver();
+
+        CommandReplay replay = new CommandReplay(baseUrl);
+        int regressions = 0;
+
+        try (JsonLines report = JsonLines.create(SuiteOutput.file("coffeecart.replay.file", "replay-report.jsonl")))
+        {
+            for (Path file : recordings)
+            {
+                CommandLog.Recording recording = CommandLog.read(file);
+                long[][] runs = new long[repeats][];
+
+                for (int i = 0; i < repeats; i++)
+                {
+                    runs[i] = replay.run(recording);
+                }
+
+                regressions += compare(recording, runs, threshold, minDeltaMillis, report);
+            }
+        }
+
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private static List<Path> recordingFiles(Path path)
+    {
+        if (!Files.isDirectory(path))
+        {
+            return List.of(path);
+        }
+
+        try (Stream<Path> files = Files.list(path))
+        {
+            return files.filter(file -> file.getFileName().toString().endsWith(".cmdrec")).sorted().toList();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int compare(CommandLog.Recording recording, long[][] runs, double threshold, double minDeltaMillis,
+                               JsonLines report)
+    {
+        List<CommandLog.Command> commands = recording.commands();
+        int regressions = 0;
+        int failures = 0;
+        int unsupported = 0;
+
+        System.out.printf("%s: %d commands%n", recording.testId(), commands.size());
+
+        for (int i = 0; i < commands.size(); i++)
+        {
+            CommandLog.Command command = commands.get(i);
+            long replayNanos = median(runs, i);
+
+            if (replayNanos == skipped)
+            {
+                unsupported++;
+                continue;
+            }
+
+            double baselineMillis = command.latencyNanos() / 1_000_000.0;
+            double replayMillis = Math.abs(replayNanos) / 1_000_000.0;
+            // Failures are stored as negative latencies
+            boolean failed = replayNanos < 0 && !command.failed();
+            boolean regressed = replayMillis > baselineMillis * (1 + threshold) && replayMillis - baselineMillis > minDeltaMillis;
+
+            if (regressed || failed)
+            {
+                System.out.printf("  #%-4d %-30s %8.1f ms -> %8.1f ms%s%n", i, command.describe(), baselineMillis,
+                        replayMillis, failed ? "  FAILED" : "");
+            }
+
+            regressions += regressed ? 1 : 0;
+            failures += failed ? 1 : 0;
+
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("test", recording.testId());
+            record.put("index", i);
+            record.put("command", command.describe());
+            record.put("baselineMillis", baselineMillis);
+            record.put("replayMillis", replayMillis);
+            record.put("regressed", regressed);
+            record.put("failed", failed);
+            report.append(record);
+        }
+
+        System.out.printf("  %d regressed, %d failed, %d not replayable%n", regressions, failures, unsupported);
+
+        return regressions + failures;
+    }
+
+    // Median over the repeats, a failure in any repeat makes the command count as failed
+    private static long median(long[][] runs, int index)
+    {
+        long[] samples = Arrays.stream(runs).mapToLong(run -> run[index]).toArray();
+
+        if (Arrays.stream(samples).anyMatch(sample -> sample == skipped))
+        {
+            return skipped;
+        }
+
+        boolean failed = Arrays.stream(samples).anyMatch(sample -> sample < 0);
+        long median = Arrays.stream(samples).map(Math::abs).sorted().toArray()[samples.length / 2];
+
+        return failed ? -median : median;
+    }
+
+    // Latency of every command, negative when it failed and `skipped` when it could not be replayed
+    private long[] run(CommandLog.Recording recording)
+    {
+        List<CommandLog.Command> commands = recording.commands();
+        long[] latencies = new long[commands.size()];
+
+        driver = Drivers.create(Drivers.defaultOptions());
+        elements = new HashMap<>();
+
+        try
+        {
+            for (int i = 0; i < commands.size(); i++)
+            {
+                latencies[i] = replay(commands.get(i));
+            }
+        }
+        finally
+        {
+            Drivers.quit(driver);
+        }
+
+        return latencies;
+    }
+
+    private long replay(CommandLog.Command command)
+    {
+        Object target = target(command);
+        Invocation invocation = target != null ? invocation(target, command) : null;
+
+        if (invocation == null)
+        {
+            return skipped;
+        }
+
+        pause(command.gapNanos());
+
+        long started = System.nanoTime();
+
+        try
+        {
+            Object result = invocation.method().invoke(target, invocation.arguments());
+            long latency = System.nanoTime() - started;
+
+            bind(command.result(), result);
+
+            return latency;
+        }
+        catch (InvocationTargetException e)
+        {
+            return -Math.max(1, System.nanoTime() - started);
+        }
+        catch (IllegalAccessException e)
+        {
+            return skipped;
+        }
+    }
+
+    private Object target(CommandLog.Command command)
+    {
+        return switch (command.targetKind())
+        {
+            case "WebDriver" -> driver;
+            case "WebElement" -> elements.get(command.targetHandle());
+            case "Navigation" -> driver.navigate();
+            case "Options" -> driver.manage();
+            case "Window" -> driver.manage().window();
+            case "Timeouts" -> driver.manage().timeouts();
+            case "TargetLocator" -> driver.switchTo();
+            default -> null;
+        };
+    }
+
+    private record Invocation(Method method, Object[] arguments)
+    {
+    }
+
+    private Invocation invocation(Object target, CommandLog.Command command)
+    {
+        for (Method method : interfaceMethods(target.getClass()))
+        {
+            if (!method.getName().equals(command.method()) || method.getParameterCount() != command.arguments().size())
+            {
+                continue;
+            }
+
+            try
+            {
+                Object[] arguments = new Object[method.getParameterCount()];
+
+                for (int i = 0; i < arguments.length; i++)
+                {
+                    arguments[i] = argument(command.arguments().get(i), method.getParameterTypes()[i]);
+                }
+
+                return new Invocation(method, arguments);
+            }
+            catch (IllegalArgumentException e)
+            {
+                // Try the next overload
+            }
+        }
+
+        return null;
+    }
+
+    // Interface methods are accessible even when the implementing class is not, e.g. generated decorators
+    private static Set<Method> interfaceMethods(Class<?> type)
+    {
+        Set<Method> methods = new LinkedHashSet<>();
+
+        for (Class<?> current = type; current != null; current = current.getSuperclass())
+        {
+            for (Class<?> implemented : current.getInterfaces())
+            {
+                methods.addAll(Arrays.asList(implemented.getMethods()));
+            }
+        }
+
+        return methods;
+    }
+
+    private Object argument(Object value, Class<?> type)
+    {
+        Object converted = switch (value)
+        {
+            case null -> null;
+            case CommandLog.Element element ->
+            {
+                WebElement bound = elements.get(element.handle());
+
+                if (bound == null)
+                {
+                    throw new IllegalArgumentException("Element " + element.handle() + " was never found");
+                }
+
+                yield bound;
+            }
+            case CommandLog.Locator locator -> locator(locator.description());
+            case CommandLog.Actions actions -> sequences(actions.json());
+            case CommandLog.Unsupported unsupported -> throw new IllegalArgumentException(unsupported.description());
+            case Long number when type == int.class || type == Integer.class -> number.intValue();
+            case Double number when type == float.class || type == Float.class -> number.floatValue();
+            case String string -> rebase(string);
+            case List<?> list when type.isArray() ->
+            {
+                Object array = Array.newInstance(type.getComponentType(), list.size());
+
+                for (int i = 0; i < list.size(); i++)
+                {
+                    Array.set(array, i, argument(list.get(i), type.getComponentType()));
+                }
+
+                yield array;
+            }
+            case List<?> list -> list.stream().map(item -> argument(item, Object.class)).toList();
+            default -> value;
+        };
+
+        if (converted != null && !wrap(type).isInstance(converted))
+        {
+            throw new IllegalArgumentException(converted.getClass() + " is not a " + type);
+        }
+
+        return converted;
+    }
+
+    // Recorded URLs keep their path and query but move to --baseUrl
+    private String rebase(String value)
+    {
+        if (baseUrl == null || !value.matches("https?://.*"))
+        {
+            return value;
+        }
+
+        int pathStart = value.indexOf('/', value.indexOf("//") + 2);
+        String base = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+
+        return pathStart < 0 ? base + "/" : base + value.substring(pathStart);
+    }
+
+    private static Class<?> wrap(Class<?> type)
+    {
+        if (!type.isPrimitive())
+        {
+            return type;
+        }
+
+        return Array.get(Array.newInstance(type, 1), 0).getClass();
+    }
+
+    static By locator(String description)
+    {
+        int separator = description.indexOf(": ");
+
+        if (separator < 0)
+        {
+            throw new IllegalArgumentException("Unknown locator " + description);
+        }
+
+        String value = description.substring(separator + 2);
+
+        return switch (description.substring(0, separator))
+        {
+            case "By.cssSelector" -> By.cssSelector(value);
+            case "By.id" -> By.id(value);
+            case "By.xpath" -> By.xpath(value);
+            case "By.className" -> By.className(value);
+            case "By.tagName" -> By.tagName(value);
+            case "By.name" -> By.name(value);
+            case "By.linkText" -> By.linkText(value);
+            case "By.partialLinkText" -> By.partialLinkText(value);
+            default -> throw new IllegalArgumentException("Unknown locator " + description);
+        };
+    }
+
+    // Rebuilds the input sources and interactions of an Actions chain from their W3C encoding
+    private List<Sequence> sequences(String encoded)
+    {
+        List<Sequence> sequences = new ArrayList<>();
+
+        for (Object item : (List<?>) json.toType(encoded, List.class))
+        {
+            Map<?, ?> source = (Map<?, ?>) item;
+            String type = String.valueOf(source.get("type"));
+            String id = String.valueOf(source.get("id"));
+
+            if (type.equals("none"))
+            {
+                continue;
+            }
+
+            if (!type.equals("pointer") && !type.equals("key"))
+            {
+                throw new IllegalArgumentException("Cannot replay " + type + " input");
+            }
+
+            PointerInput pointer = type.equals("pointer") ? new PointerInput(pointerKind(source), id) : null;
+            KeyInput keyboard = type.equals("key") ? new KeyInput(id) : null;
+            Sequence sequence = new Sequence(pointer != null ? pointer : keyboard, 0);
+
+            for (Object actionItem : (Collection<?>) source.get("actions"))
+            {
+                Map<?, ?> action = (Map<?, ?>) actionItem;
+                sequence.addAction(interaction(pointer, keyboard, action));
+            }
+
+            sequences.add(sequence);
+        }
+
+        return sequences;
+    }
+
+    private Interaction interaction(PointerInput pointer, KeyInput keyboard, Map<?, ?> action)
+    {
+        String type = String.valueOf(action.get("type"));
+
+        return switch (type)
+        {
+            case "pause" -> new Pause(pointer != null ? pointer : keyboard, Duration.ofMillis(number(action.get("duration"))));
+            case "pointerMove" -> pointer.createPointerMove(Duration.ofMillis(number(action.get("duration"))),
+                    origin(action.get("origin")), (int) number(action.get("x")), (int) number(action.get("y")));
+            case "pointerDown" -> pointer.createPointerDown((int) number(action.get("button")));
+            case "pointerUp" -> pointer.createPointerUp((int) number(action.get("button")));
+            case "keyDown" -> keyboard.createKeyDown(String.valueOf(action.get("value")).codePointAt(0));
+            case "keyUp" -> keyboard.createKeyUp(String.valueOf(action.get("value")).codePointAt(0));
+            default -> throw new IllegalArgumentException("Cannot replay " + type + " action");
+        };
+    }
+
+    private PointerInput.Origin origin(Object origin)
+    {
+        if (origin instanceof Map<?, ?> element)
+        {
+            return PointerInput.Origin.fromElement((WebElement) argument(
+                    new CommandLog.Element((int) number(element.get("handle"))), WebElement.class));
+        }
+
+        return "pointer".equals(origin) ? PointerInput.Origin.pointer() : PointerInput.Origin.viewport();
+    }
+
+    private static PointerInput.Kind pointerKind(Map<?, ?> source)
+    {
+        Object parameters = source.get("parameters");
+        Object kind = parameters instanceof Map<?, ?> map ? map.get("pointerType") : null;
+
+        return kind == null ? PointerInput.Kind.MOUSE : PointerInput.Kind.valueOf(String.valueOf(kind).toUpperCase(Locale.ROOT));
+    }
+
+    private static long number(Object value)
+    {
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+
+    // Elements in the replayed result take the handles they had in the recording
+    private void bind(Object recorded, Object actual)
+    {
+        if (recorded instanceof CommandLog.Element element && actual instanceof WebElement webElement)
+        {
+            elements.put(element.handle(), webElement);
+        }
+        else if (recorded instanceof List<?> recordedList && actual instanceof List<?> actualList)
+        {
+            for (int i = 0; i < Math.min(recordedList.size(), actualList.size()); i++)
+            {
+                bind(recordedList.get(i), actualList.get(i));
+            }
+        }
+    }
+
+    private static void pause(long nanos)
+    {
+        if (nanos <= 0)
+        {
+            return;
+        }
+
+        try
+        {
+            Thread.sleep(Duration.ofNanos(nanos));
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Actions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads computed styles of many elements and properties in one script call instead of one
+// getCssValue round trip per element and property.
+public final class ComputedStyles
+{
+    private static final String readScript =
+            "const properties = arguments[1];"
+            + "return arguments[0].map(element => {"
+            + "  const style = getComputedStyle(element);"
+            + "  return properties.map(property => style.getPropertyValue(property));"
+            + "});";
+
+    private ComputedStyles()
+    {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static StyleTable read(WebDriver driver, List<WebElement> elements, String... properties)
+    {
+        List<String> propertyList = List.of(properties);
+        List<List<String>> rows = (List<List<String>>) ((JavascriptExecutor) driver).executeScript(readScript, elements, propertyList);
+
+        return new StyleTable(propertyList, rows);
+    }
+
+    // Styles of every element before any hover, of each element while the mouse is over it and of
+    // every element after the mouse moved away. Hovering is inherently one element at a time, so this
+    // costs two round trips per element plus three, instead of five per element.
+    public static HoverStyles readAroundHover(WebDriver driver, List<WebElement> elements, String... properties)
+    {
+        StyleTable before = read(driver, elements, properties);
+        List<List<String>> hoveredRows = new ArrayList<>();
+
+        for (WebElement element : elements)
+        {
+            new Actions(driver)
+                    .moveToElement(element)
+                    .perform();
+
+            hoveredRows.add(read(driver, List.of(element), properties).row(0));
+        }
+
+        new Actions(driver)
+                .moveToLocation(0, 0)
+                .perform();
+
+        StyleTable after = read(driver, elements, properties);
+
+        return new HoverStyles(before, new StyleTable(List.of(properties), hoveredRows), after);
+    }
+
+    public record HoverStyles(StyleTable before, StyleTable hovered, StyleTable after)
+    {
+    }
+}
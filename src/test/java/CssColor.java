@@ -0,0 +1,78 @@
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Computed color normalized to RGBA, so "rgb(0, 0, 0)", "rgba(0, 0, 0, 1)" and "#000" compare equal.
+public record CssColor(int red, int green, int blue, double alpha)
+{
+    private static final Pattern functionPattern = Pattern.compile("rgba?\\(\\s*([\\d.]+)[\\s,]+([\\d.]+)[\\s,]+([\\d.]+)(?:[\\s,/]+([\\d.]+%?))?\\s*\\)");
+
+    public static final CssColor black = of(0, 0, 0);
+    public static final CssColor goldenrod = of(218, 165, 32);
+    public static final CssColor transparent = new CssColor(0, 0, 0, 0);
+
+    public static CssColor of(int red, int green, int blue)
+    {
+        return new CssColor(red, green, blue, 1);
+    }
+
+    public static CssColor parse(String value)
+    {
+        String text = value.trim().toLowerCase();
+
+        if (text.equals("transparent"))
+        {
+            return transparent;
+        }
+
+        if (text.startsWith("#"))
+        {
+            return parseHex(text.substring(1));
+        }
+
+        Matcher matcher = functionPattern.matcher(text);
+
+        if (!matcher.matches())
+        {
+            throw new IllegalArgumentException("Unsupported CSS color: " + value);
+        }
+
+        double alpha = 1;
+
+        if (matcher.group(4) != null)
+        {
+            String alphaText = matcher.group(4);
+            alpha = alphaText.endsWith("%")
+                    ? Double.parseDouble(alphaText.substring(0, alphaText.length() - 1)) / 100
+                    : Double.parseDouble(alphaText);
+        }
+
+        return new CssColor(channel(matcher.group(1)), channel(matcher.group(2)), channel(matcher.group(3)), alpha);
+    }
+
+    private static CssColor parseHex(String hex)
+    {
+        if (hex.length() == 3 || hex.length() == 4)
+        {
+            StringBuilder expanded = new StringBuilder();
+
+            for (char digit : hex.toCharArray())
+            {
+                expanded.append(digit).append(digit);
+            }
+
+            hex = expanded.toString();
+        }
+
+        int red = Integer.parseInt(hex.substring(0, 2), 16);
+        int green = Integer.parseInt(hex.substring(2, 4), 16);
+        int blue = Integer.parseInt(hex.substring(4, 6), 16);
+        double alpha = hex.length() == 8 ? Integer.parseInt(hex.substring(6, 8), 16) / 255.0 : 1;
+
+        return new CssColor(red, green, blue, alpha);
+    }
+
+    private static int channel(String text)
+    {
+        return (int) Math.round(Double.parseDouble(text));
+    }
+}
@@ -0,0 +1,56 @@
+// Computed transform reduced to its 2D affine matrix: "none" is the identity, matrix3d keeps only
+// the components that affect the screen plane.
+public record CssTransform(double a, double b, double c, double d, double e, double f)
+{
+    private static final double epsilon = 1e-6;
+
+    public static final CssTransform none = new CssTransform(1, 0, 0, 1, 0, 0);
+
+    public static CssTransform parse(String value)
+    {
+        String text = value.trim();
+
+        if (text.equals("none"))
+        {
+            return none;
+        }
+
+        int open = text.indexOf('(');
+
+        if (open == -1 || !text.endsWith(")"))
+        {
+            throw new IllegalArgumentException("Unsupported CSS transform: " + value);
+        }
+
+        String[] parts = text.substring(open + 1, text.length() - 1).split(",");
+        double[] numbers = new double[parts.length];
+
+        for (int i = 0; i < parts.length; ++i)
+        {
+            numbers[i] = Double.parseDouble(parts[i].trim());
+        }
+
+        return switch (text.substring(0, open))
+        {
+            case "matrix" -> new CssTransform(numbers[0], numbers[1], numbers[2], numbers[3], numbers[4], numbers[5]);
+            case "matrix3d" -> new CssTransform(numbers[0], numbers[1], numbers[4], numbers[5], numbers[12], numbers[13]);
+            default -> throw new IllegalArgumentException("Unsupported CSS transform: " + value);
+        };
+    }
+
+    public boolean isIdentity()
+    {
+        return Math.abs(a - 1) < epsilon && Math.abs(b) < epsilon && Math.abs(c) < epsilon
+                && Math.abs(d - 1) < epsilon && Math.abs(e) < epsilon && Math.abs(f) < epsilon;
+    }
+
+    public double rotationDegrees()
+    {
+        return Math.toDegrees(Math.atan2(b, a));
+    }
+
+    public boolean isRotated()
+    {
+        return Math.abs(rotationDegrees()) > epsilon;
+    }
+}
@@ -0,0 +1,58 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CssValuesTest
+{
+    @Test
+    public void testColorFormatsAreNormalized()
+    {
+        assertEquals(CssColor.goldenrod, CssColor.parse("rgb(218, 165, 32)"));
+        assertEquals(CssColor.goldenrod, CssColor.parse("rgba(218, 165, 32, 1)"));
+        assertEquals(CssColor.goldenrod, CssColor.parse("#DAA520"));
+        assertEquals(CssColor.black, CssColor.parse("#000"));
+        assertEquals(CssColor.black, CssColor.parse("rgb(0 0 0)"));
+    }
+
+    @Test
+    public void testColorAlphaIsKept()
+    {
+        assertEquals(0.5, CssColor.parse("rgba(0, 0, 0, 0.5)").alpha());
+        assertEquals(0.25, CssColor.parse("rgb(0 0 0 / 25%)").alpha());
+        assertEquals(CssColor.transparent, CssColor.parse("transparent"));
+    }
+
+    @Test
+    public void testUnsupportedColorIsRejected()
+    {
+        assertThrows(IllegalArgumentException.class, () -> CssColor.parse("hsl(0, 0%, 0%)"));
+    }
+
+    @Test
+    public void testNoneTransformIsIdentity()
+    {
+        assertTrue(CssTransform.parse("none").isIdentity());
+        assertFalse(CssTransform.parse("none").isRotated());
+    }
+
+    @Test
+    public void testRotationIsReadFromMatrix()
+    {
+        CssTransform rotated = CssTransform.parse("matrix(0.965926, 0.258819, -0.258819, 0.965926, 0, 0)");
+
+        assertTrue(rotated.isRotated());
+        assertEquals(15, rotated.rotationDegrees(), 0.01);
+    }
+
+    @Test
+    public void testMatrix3dKeepsScreenPlaneComponents()
+    {
+        CssTransform transform = CssTransform.parse("matrix3d(1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, 10, 20, 0, 1)");
+
+        assertEquals(new CssTransform(1, 0, 0, 1, 10, 20), transform);
+        assertFalse(transform.isIdentity());
+    }
+}
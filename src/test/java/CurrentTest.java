@@ -0,0 +1,49 @@
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestIdentifier;
+
+// Identity of the test executing on the current thread, for tooling that only sees WebDriver calls.
+public record CurrentTest(String className, String methodName, String displayName)
+{
+    private static final CurrentTest none = new CurrentTest("", "", "");
+    private static final ThreadLocal<CurrentTest> current = ThreadLocal.withInitial(() -> none);
+
+    public static CurrentTest get()
+    {
+        return current.get();
+    }
+
+    public static void set(TestIdentifier testIdentifier)
+    {
+        current.set(of(testIdentifier));
+    }
+
+    public static void clear()
+    {
+        current.remove();
+    }
+
+    public static CurrentTest of(TestIdentifier testIdentifier)
+    {
+        return testIdentifier.getSource()
+                .filter(MethodSource.class::isInstance)
+                .map(MethodSource.class::cast)
+                .map(source -> new CurrentTest(source.getClassName(), source.getMethodName(), testIdentifier.getDisplayName()))
+                .orElseGet(() -> new CurrentTest("", testIdentifier.getDisplayName(), testIdentifier.getDisplayName()));
+    }
+
+    public boolean isKnown()
+    {
+        return !className.isEmpty();
+    }
+
+    public String id()
+    {
+        return className + "#" + methodName;
+    }
+
+    // One invocation of a parameterized or repeated test, whose display name ("[2] https://...") is not the method's
+    public boolean isInvocation()
+    {
+        return isKnown() && !displayName.equals(methodName + "()");
+    }
+}
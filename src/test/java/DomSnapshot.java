@@ -0,0 +1,71 @@
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+
+// The page's markup fetched in a single script call and parsed in-process, so read-only checks can
+// run any number of CSS queries without a WebDriver round trip each. A snapshot does not change with
+// the page and knows nothing about layout, so visibility checks still need the live elements.
+public final class DomSnapshot
+{
+    private static final String outerHtmlScript =
+            "const element = arguments[0] ? document.querySelector(arguments[0]) : document.documentElement;"
+            + "return element ? element.outerHTML : null;";
+
+    private final Element root;
+
+    private DomSnapshot(Element root)
+    {
+        this.root = root;
+    }
+
+    public static DomSnapshot of(WebDriver driver)
+    {
+        String html = (String) ((JavascriptExecutor) driver).executeScript(outerHtmlScript, (Object) null);
+
+        return new DomSnapshot(Jsoup.parse(html, driver.getCurrentUrl()));
+    }
+
+    // Only the first element matching the selector, e.g. "ul.cart-preview" or "div.modal-content"
+    public static DomSnapshot of(WebDriver driver, String cssSelector)
+    {
+        Footprints.selector(cssSelector);
+
+        String html = (String) ((JavascriptExecutor) driver).executeScript(outerHtmlScript, cssSelector);
+
+        if (html == null)
+        {
+            throw new NoSuchElementException("No element matches " + cssSelector + " in the snapshot");
+        }
+
+        return new DomSnapshot(Jsoup.parseBodyFragment(html).body().child(0));
+    }
+
+    public Element root()
+    {
+        return root;
+    }
+
+    public Elements select(String cssSelector)
+    {
+        Footprints.selector(cssSelector);
+
+        return root.select(cssSelector);
+    }
+
+    public Element selectFirst(String cssSelector)
+    {
+        Footprints.selector(cssSelector);
+
+        Element element = root.selectFirst(cssSelector);
+
+        if (element == null)
+        {
+            throw new NoSuchElementException("No element matches " + cssSelector + " in the snapshot");
+        }
+
+        return element;
+    }
+}
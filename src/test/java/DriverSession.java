@@ -0,0 +1,72 @@
+import org.openqa.selenium.WebDriver;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+// One browser session created by Drivers: the raw driver, the instrumented view handed to tests and
+// the operating system processes behind it.
+public final class DriverSession
+{
+    private final WebDriver rawDriver;
+    private final WebDriver driver;
+    private final BrowserProcesses processes;
+    private final Path profileDirectory;
+    private final SessionHealth health;
+    private final Instant createdAt = Instant.now();
+    private volatile Instant releasedAt;
+
+    DriverSession(WebDriver rawDriver, WebDriver driver, BrowserProcesses processes, Path profileDirectory, SessionHealth health)
+    {
+        this.rawDriver = rawDriver;
+        this.driver = driver;
+        this.processes = processes;
+        this.profileDirectory = profileDirectory;
+        this.health = health;
+    }
+
+    public WebDriver rawDriver()
+    {
+        return rawDriver;
+    }
+
+    public WebDriver driver()
+    {
+        return driver;
+    }
+
+    public BrowserProcesses processes()
+    {
+        return processes;
+    }
+
+    // Cloned profile template, null when the browser created its own profile
+    public Path profileDirectory()
+    {
+        return profileDirectory;
+    }
+
+    public SessionHealth health()
+    {
+        return health;
+    }
+
+    public Instant createdAt()
+    {
+        return createdAt;
+    }
+
+    public Instant releasedAt()
+    {
+        return releasedAt;
+    }
+
+    void markReleased()
+    {
+        releasedAt = Instant.now();
+    }
+
+    public boolean isReleased()
+    {
+        return releasedAt != null;
+    }
+}
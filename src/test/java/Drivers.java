@@ -0,0 +1,185 @@
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public final class Drivers
+{
+    private static final Map<WebDriver, DriverSession> sessions = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private Drivers()
+    {
+    }
+
+    // Headless options of the browser selected with -Dcoffeecart.browser
+    public static Capabilities defaultOptions()
+    {
+        return Browser.current().defaultOptions();
+    }
+
+    // Hands out a pre-warmed session when one matches the options, otherwise starts one inline
+    public static WebDriver create(Capabilities options)
+    {
+        DriverSession session = PhaseTimings.current().time(TestPhase.DRIVER_ACQUIRE, () -> {
+            DriverSession warmSession = WarmSessionPool.get().take(options);
+
+            return warmSession != null ? warmSession : launch(options);
+        });
+
+        sessions.put(session.driver(), session);
+        ResourceUsage.current().attach(session.processes());
+
+        return session.driver();
+    }
+
+    // Starts a session that is not for the calling test, e.g. a replacement in a pool of reused sessions
+    public static WebDriver createDetached(Capabilities options)
+    {
+        DriverSession session = launch(options);
+        sessions.put(session.driver(), session);
+
+        return session.driver();
+    }
+
+    // Starts a new browser session; safe to call from any thread
+    static DriverSession launch(Capabilities options)
+    {
+        FlightRecording.start();
+        ProcessReaper.start();
+
+        SuiteEvents.DriverCreation event = FlightRecording.isEnabled() ? new SuiteEvents.DriverCreation() : null;
+
+        if (event != null)
+        {
+            event.setTest(CurrentTest.get());
+            event.browser = options.getBrowserName();
+            event.begin();
+        }
+
+        Browser browser = Browser.of(options);
+        Path profileDirectory = browser == Browser.FIREFOX && ProfileTemplate.isEnabled()
+                ? ProfileTemplate.newSessionProfile(Browser.firefoxOptions(options))
+                : null;
+        Capabilities sessionOptions = profileDirectory != null
+                ? ProfileTemplate.apply(Browser.firefoxOptions(Throttling.apply(options)), profileDirectory)
+                : Throttling.apply(options);
+
+        Set<Long> childrenBefore = BrowserProcesses.childrenOfThisJvm();
+        RemoteWebDriver rawDriver = null;
+
+        try
+        {
+            rawDriver = browser.start(sessionOptions);
+            Throttling.applyCpu(rawDriver);
+        }
+        catch (RuntimeException e)
+        {
+            // Nothing tracks the session yet, so nothing else would remove the browser or its cloned profile
+            try
+            {
+                if (rawDriver != null)
+                {
+                    rawDriver.quit();
+                }
+            }
+            finally
+            {
+                if (profileDirectory != null)
+                {
+                    ProfileTemplate.delete(profileDirectory);
+                }
+            }
+
+            throw e;
+        }
+
+        if (event != null)
+        {
+            event.commit();
+        }
+
+        SessionHealth health = new SessionHealth();
+        List<WebDriverListener> listeners = listeners();
+        listeners.add(health);
+
+        WebDriver driver = new EventFiringDecorator<WebDriver>(listeners.toArray(WebDriverListener[]::new)).decorate(rawDriver);
+        DriverSession session = new DriverSession(rawDriver, driver, BrowserProcesses.of(rawDriver, childrenBefore), profileDirectory, health);
+
+        ProcessReaper.track(session);
+
+        return session;
+    }
+
+    private static List<WebDriverListener> listeners()
+    {
+        List<WebDriverListener> listeners = new ArrayList<>();
+        listeners.add(new TimingListener());
+        listeners.add(new FootprintListener());
+        listeners.add(new CommandMetricsListener());
+
+        if (FlightRecording.isEnabled())
+        {
+            listeners.add(new FlightRecorderListener());
+        }
+
+        if (CommandRecording.isEnabled())
+        {
+            listeners.add(new CommandRecorder());
+        }
+
+        return listeners;
+    }
+
+    public static DriverSession session(WebDriver driver)
+    {
+        return sessions.get(driver);
+    }
+
+    public static int activeSessions()
+    {
+        return sessions.size();
+    }
+
+    public static void quit(WebDriver driver)
+    {
+        DriverSession session = sessions.remove(driver);
+        ResourceUsage.current().sample();
+
+        PhaseTimings.current().time(TestPhase.TEARDOWN, () -> {
+            if (session != null)
+            {
+                close(session);
+            }
+            else
+            {
+                driver.quit();
+            }
+        });
+    }
+
+    static void close(DriverSession session)
+    {
+        try
+        {
+            session.driver().quit();
+        }
+        finally
+        {
+            ProcessReaper.released(session);
+
+            if (session.profileDirectory() != null)
+            {
+                ProfileTemplate.delete(session.profileDirectory());
+            }
+        }
+    }
+}
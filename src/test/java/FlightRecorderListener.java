@@ -0,0 +1,65 @@
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// Only attached to drivers when FlightRecording is enabled.
+public class FlightRecorderListener implements WebDriverListener
+{
+    private final ThreadLocal<Deque<SuiteEvents.TestEvent>> openEvents = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args)
+    {
+        SuiteEvents.TestEvent event;
+
+        if (WebDriverCalls.isNavigation(target, method))
+        {
+            SuiteEvents.Navigation navigation = new SuiteEvents.Navigation();
+            navigation.command = WebDriverCalls.describe(target, method);
+            navigation.url = args != null && args.length > 0 ? String.valueOf(args[0]) : null;
+            event = navigation;
+        }
+        else
+        {
+            SuiteEvents.WebDriverCommand command = new SuiteEvents.WebDriverCommand();
+            command.command = WebDriverCalls.describe(target, method);
+            event = command;
+        }
+
+        event.setTest(CurrentTest.get());
+        event.begin();
+        openEvents.get().push(event);
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result)
+    {
+        commit(false);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e)
+    {
+        commit(true);
+    }
+
+    private void commit(boolean failed)
+    {
+        SuiteEvents.TestEvent event = openEvents.get().poll();
+
+        if (event == null)
+        {
+            return;
+        }
+
+        if (event instanceof SuiteEvents.WebDriverCommand command)
+        {
+            command.failed = failed;
+        }
+
+        event.commit();
+    }
+}
@@ -0,0 +1,67 @@
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+
+// -Dcoffeecart.jfr=true emits the suite's events into any recording started with
+// -XX:StartFlightRecording. -Dcoffeecart.jfr=<file.jfr> additionally starts a "profile" recording
+// and dumps it when the JVM exits. Without the property no listener is attached to the driver and
+// no event objects are allocated.
+public final class FlightRecording
+{
+    private static final String setting = System.getProperty("coffeecart.jfr", "false");
+    private static final boolean enabled = !setting.equals("false") && FlightRecorder.isAvailable();
+
+    private static Recording recording;
+
+    private FlightRecording()
+    {
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public static synchronized void start()
+    {
+        if (!enabled || recording != null || setting.equals("true"))
+        {
+            return;
+        }
+
+        try
+        {
+            recording = new Recording(Configuration.getConfiguration("profile"));
+        }
+        catch (IOException | ParseException e)
+        {
+            throw new IllegalStateException("Cannot load the JFR profile configuration", e);
+        }
+
+        Path destination = Path.of(setting).toAbsolutePath();
+
+        recording.setName("coffeecart");
+        recording.setToDisk(true);
+        recording.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> dump(destination), "jfr-dump"));
+    }
+
+    private static synchronized void dump(Path destination)
+    {
+        try
+        {
+            recording.dump(destination);
+            recording.close();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
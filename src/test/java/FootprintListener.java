@@ -0,0 +1,42 @@
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+
+// Feeds Footprints with every locator a test uses and every route it navigates to or reads back.
+public class FootprintListener implements WebDriverListener
+{
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args)
+    {
+        if (args == null)
+        {
+            return;
+        }
+
+        for (Object arg : args)
+        {
+            if (arg instanceof By by)
+            {
+                Footprints.selector(by);
+            }
+        }
+
+        if (WebDriverCalls.isNavigation(target, method) && args.length > 0
+                && (args[0] instanceof String || args[0] instanceof URL))
+        {
+            Footprints.route(args[0].toString());
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result)
+    {
+        // Routes reached by clicking through the app show up when the test reads the URL
+        if (method.getName().equals("getCurrentUrl") && result instanceof String url)
+        {
+            Footprints.route(url);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+import org.openqa.selenium.By;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+// CSS selectors and routes each test touched, collected by FootprintListener and DomSnapshot and
+// merged into target/test-footprints.jsonl (-Dcoffeecart.footprints.file) at the end of every run.
+// Entries of tests that ran are combined with what earlier runs recorded, so a footprint only grows
+// and ImpactSelector errs on the side of running a test.
+public final class Footprints
+{
+    private static final Map<String, Footprint> collected = new ConcurrentHashMap<>();
+
+    private Footprints()
+    {
+    }
+
+    public record Footprint(Set<String> selectors, Set<String> routes)
+    {
+        static Footprint empty()
+        {
+            return new Footprint(ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    public static Path file()
+    {
+        return SuiteOutput.file("coffeecart.footprints.file", "test-footprints.jsonl");
+    }
+
+    public static void selector(String cssSelector)
+    {
+        CurrentTest test = CurrentTest.get();
+
+        if (test.isKnown())
+        {
+            collected.computeIfAbsent(test.id(), id -> Footprint.empty()).selectors().add(cssSelector);
+        }
+    }
+
+    public static void selector(By by)
+    {
+        selector(selectorOf(by));
+    }
+
+    public static void route(String url)
+    {
+        CurrentTest test = CurrentTest.get();
+        String route = routeOf(url);
+
+        if (test.isKnown() && route != null)
+        {
+            collected.computeIfAbsent(test.id(), id -> Footprint.empty()).routes().add(route);
+        }
+    }
+
+    // Locators as CSS where there is an equivalent, e.g. By.id("name") is "#name"
+    static String selectorOf(By by)
+    {
+        String description = by.toString();
+        int separator = description.indexOf(": ");
+
+        if (separator < 0)
+        {
+            return description;
+        }
+
+        String value = description.substring(separator + 2);
+
+        return switch (description.substring(0, separator))
+        {
+            case "By.cssSelector", "By.tagName" -> value;
+            case "By.id" -> "#" + value;
+            case "By.className" -> "." + value;
+            case "By.name" -> "[name=" + value + "]";
+            default -> description;
+        };
+    }
+
+    static String routeOf(String url)
+    {
+        try
+        {
+            URI uri = URI.create(url);
+
+            if (uri.getScheme() == null || !uri.getScheme().startsWith("http"))
+            {
+                return null;
+            }
+
+            String path = uri.getPath();
+
+            return path == null || path.isEmpty() ? "/" : path;
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+
+    public static Map<String, Footprint> load(Path file)
+    {
+        Map<String, Footprint> footprints = new TreeMap<>();
+
+        if (!Files.exists(file))
+        {
+            return footprints;
+        }
+
+        for (Map<String, Object> record : JsonLines.read(file))
+        {
+            Footprint footprint = Footprint.empty();
+            strings(record.get("selectors")).forEach(footprint.selectors()::add);
+            strings(record.get("routes")).forEach(footprint.routes()::add);
+
+            footprints.put(String.valueOf(record.get("test")), footprint);
+        }
+
+        return footprints;
+    }
+
+    public static void save(Path file)
+    {
+        if (collected.isEmpty())
+        {
+            return;
+        }
+
+        Map<String, Footprint> footprints = load(file);
+
+        collected.forEach((test, footprint) -> {
+            Footprint merged = footprints.computeIfAbsent(test, id -> Footprint.empty());
+            merged.selectors().addAll(footprint.selectors());
+            merged.routes().addAll(footprint.routes());
+        });
+
+        try (JsonLines lines = JsonLines.create(file))
+        {
+            footprints.forEach((test, footprint) -> {
+                Map<String, Object> record = new LinkedHashMap<>();
+                record.put("test", test);
+                record.put("selectors", new TreeSet<>(footprint.selectors()));
+                record.put("routes", new TreeSet<>(footprint.routes()));
+
+                lines.append(record);
+            });
+        }
+
+        collected.clear();
+    }
+
+    private static List<String> strings(Object value)
+    {
+        return value instanceof List<?> list ? list.stream().map(String::valueOf).toList() : List.of();
+    }
+}
@@ -0,0 +1,12 @@
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+// Writes the footprints collected during the run, see Footprints.
+public class FootprintsListener implements TestExecutionListener
+{
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan)
+    {
+        Footprints.save(Footprints.file());
+    }
+}
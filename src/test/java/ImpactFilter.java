@@ -0,0 +1,35 @@
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.util.List;
+import java.util.Map;
+
+// With -Dcoffeecart.impact=<changes> (as for ImpactSelector: comma separated routes and selectors, or
+// @changes.txt) only tests affected by the changes run, everything else is skipped at discovery.
+// Without the property every test runs.
+public class ImpactFilter implements PostDiscoveryFilter
+{
+    private final List<String> changes = ImpactSelector.changes(System.getProperty("coffeecart.impact", ""));
+    private final Map<String, Footprints.Footprint> footprints = changes.isEmpty() ? Map.of() : Footprints.load(Footprints.file());
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor)
+    {
+        if (changes.isEmpty() || !(descriptor.getSource().orElse(null) instanceof MethodSource source))
+        {
+            return FilterResult.included("no impact filter");
+        }
+
+        Footprints.Footprint footprint = footprints.get(source.getClassName() + "#" + source.getMethodName());
+
+        if (footprint == null)
+        {
+            return FilterResult.included("no footprint recorded");
+        }
+
+        return FilterResult.includedIf(ImpactSelector.isAffected(footprint, changes),
+                () -> "affected by " + changes, () -> "not affected by " + changes);
+    }
+}
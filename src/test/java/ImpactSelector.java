@@ -0,0 +1,250 @@
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Usage: java ImpactSelector <change> ... | @changes.txt
+// A change is a route of the app ("/cart") or a CSS selector of a changed component ("div.modal-content",
+// "[data-v-a9662a08]"), a changes file has one per line and # comments. Prints the tests whose
+// footprint (see Footprints) touches any change, writes them to target/impacted-tests.txt and prints
+// them as a -Dtest= pattern. Tests without a recorded footprint (found by discovering the test classes on
+// the classpath) are always selected.
+//
+// Selectors are compared by their class, id and attribute tokens, a changed "div.modal-content"
+// affects every test that used ".modal-content" in any selector. Only a change without such tokens
+// ("button") is compared by element names.
+public final class ImpactSelector
+{
+    private static final Pattern classOrId = Pattern.compile("[.#][\\w-]+");
+    private static final Pattern attribute = Pattern.compile("\\[\\s*([\\w-]+)\\s*(?:[~|^$*]?=\\s*[\"']?([^\"'\\]]*)[\"']?\\s*)?]");
+    private static final Pattern elementName = Pattern.compile("(?:^|[\\s>+~(,])([a-zA-Z][\\w-]*)");
+
+    private ImpactSelector()
+    {
+    }
+
+    public static void main(String[] args)
+    {
+        List<String> changes = changes(String.join(",", args));
+
+        if (changes.isEmpty())
+        {
+            System.err.println("Usage: java ImpactSelector <route or selector> ... | @changes.txt");
+            System.exit(2);
+        }
+
+        Map<String, Footprints.Footprint> footprints = Footprints.load(Footprints.file());
+        Set<String> discovered = discoveredTests();
+        Set<String> unrecorded = new TreeSet<>(discovered);
+        unrecorded.removeAll(footprints.keySet());
+        Set<String> affected = select(footprints, discovered, changes);
+
+        System.out.printf("%d of %d recorded tests are affected by %s%n", affected.size() - unrecorded.size(), footprints.size(), changes);
+        affected.stream().filter(test -> !unrecorded.contains(test)).forEach(test -> System.out.println("  " + test));
+
+        if (!unrecorded.isEmpty())
+        {
+            System.out.printf("%d tests have no recorded footprint and are selected as well:%n", unrecorded.size());
+            unrecorded.forEach(test -> System.out.println("  " + test));
+        }
+
+        try
+        {
+            Files.write(SuiteOutput.file("coffeecart.impact.report", "impacted-tests.txt"), affected);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        System.out.println("-Dtest=" + surefirePattern(affected));
+    }
+
+    // Recorded tests the changes affect, plus every discovered test without a footprint
+    static Set<String> select(Map<String, Footprints.Footprint> footprints, Set<String> discovered, List<String> changes)
+    {
+        Set<String> selected = new TreeSet<>();
+
+        footprints.forEach((test, footprint) -> {
+            if (isAffected(footprint, changes))
+            {
+                selected.add(test);
+            }
+        });
+
+        discovered.stream()
+                .filter(test -> !footprints.containsKey(test))
+                .forEach(selected::add);
+
+        return selected;
+    }
+
+    // class#method of every test method in the class directories of the classpath
+    private static Set<String> discoveredTests()
+    {
+        Set<Path> classDirectories = Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .map(Path::of)
+                .filter(Files::isDirectory)
+                .collect(Collectors.toSet());
+        TestPlan plan = LauncherFactory.create().discover(LauncherDiscoveryRequestBuilder.request()
+                .selectors(DiscoverySelectors.selectClasspathRoots(classDirectories))
+                .build());
+        Set<String> tests = new TreeSet<>();
+
+        for (TestIdentifier root : plan.getRoots())
+        {
+            plan.getDescendants(root).stream()
+                    .map(TestIdentifier::getSource)
+                    .flatMap(Optional::stream)
+                    .filter(MethodSource.class::isInstance)
+                    .map(MethodSource.class::cast)
+                    .forEach(source -> tests.add(source.getClassName() + "#" + source.getMethodName()));
+        }
+
+        return tests;
+    }
+
+    // Comma separated changes or @file
+    public static List<String> changes(String value)
+    {
+        List<String> changes = new ArrayList<>();
+
+        for (String part : value.split(","))
+        {
+            part = part.trim();
+
+            if (part.startsWith("@"))
+            {
+                try
+                {
+                    Files.readAllLines(Path.of(part.substring(1))).stream()
+                            .map(String::trim)
+                            .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                            .forEach(changes::add);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            else if (!part.isEmpty())
+            {
+                changes.add(part);
+            }
+        }
+
+        return changes;
+    }
+
+    public static boolean isAffected(Footprints.Footprint footprint, List<String> changes)
+    {
+        Set<String> usedTokens = new LinkedHashSet<>();
+        Set<String> usedElements = new LinkedHashSet<>();
+
+        for (String selector : footprint.selectors())
+        {
+            usedTokens.addAll(tokens(selector));
+            usedElements.addAll(elementNames(selector));
+        }
+
+        for (String change : changes)
+        {
+            if (change.startsWith("/"))
+            {
+                if (footprint.routes().contains(change))
+                {
+                    return true;
+                }
+
+                continue;
+            }
+
+            Set<String> changedTokens = tokens(change);
+            Set<String> used = changedTokens.isEmpty() ? usedElements : usedTokens;
+
+            for (String token : changedTokens.isEmpty() ? elementNames(change) : changedTokens)
+            {
+                if (used.contains(token))
+                {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    // Classes (".item"), ids ("#name") and attributes ("[data-v-a9662a08]", "[name=email]")
+    static Set<String> tokens(String selector)
+    {
+        Set<String> tokens = new LinkedHashSet<>();
+        Matcher attributes = attribute.matcher(selector);
+
+        while (attributes.find())
+        {
+            tokens.add(attributes.group(2) == null
+                    ? "[" + attributes.group(1) + "]"
+                    : "[" + attributes.group(1) + "=" + attributes.group(2) + "]");
+        }
+
+        // Attribute values may contain dots, e.g. [href="/cart.html"]
+        Matcher classesAndIds = classOrId.matcher(attributes.replaceAll(" "));
+
+        while (classesAndIds.find())
+        {
+            tokens.add(classesAndIds.group());
+        }
+
+        return tokens;
+    }
+
+    static Set<String> elementNames(String selector)
+    {
+        Set<String> names = new LinkedHashSet<>();
+        Matcher matcher = elementName.matcher(attribute.matcher(selector).replaceAll(" "));
+
+        while (matcher.find())
+        {
+            names.add(matcher.group(1).toLowerCase());
+        }
+
+        return names;
+    }
+
+    // MenuTest#a+b,CartTest#c
+    static String surefirePattern(Set<String> tests)
+    {
+        Map<String, List<String>> methods = new TreeMap<>();
+
+        for (String test : tests)
+        {
+            int separator = test.indexOf('#');
+            methods.computeIfAbsent(test.substring(0, separator), name -> new ArrayList<>()).add(test.substring(separator + 1));
+        }
+
+        List<String> classes = new ArrayList<>();
+        methods.forEach((name, names) -> classes.add(name + "#" + String.join("+", names)));
+
+        return String.join(",", classes);
+    }
+}
@@ -0,0 +1,79 @@
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ImpactSelectorTest
+{
+    private static Footprints.Footprint footprint(List<String> selectors, List<String> routes)
+    {
+        Footprints.Footprint footprint = Footprints.Footprint.empty();
+        footprint.selectors().addAll(selectors);
+        footprint.routes().addAll(routes);
+
+        return footprint;
+    }
+
+    @Test
+    public void testSelectorsOverlapByClassIdAndAttribute()
+    {
+        Footprints.Footprint menu = footprint(List.of("li[data-v-a9662a08]", "div.modal-content", "#name"), List.of("/"));
+
+        assertTrue(ImpactSelector.isAffected(menu, List.of("[data-v-a9662a08]")));
+        assertTrue(ImpactSelector.isAffected(menu, List.of("form .modal-content > button")));
+        assertTrue(ImpactSelector.isAffected(menu, List.of("input#name")));
+        assertFalse(ImpactSelector.isAffected(menu, List.of("li.list-item")));
+        assertFalse(ImpactSelector.isAffected(menu, List.of("div.snackbar")));
+    }
+
+    @Test
+    public void testElementNamesOnlyCountWithoutOtherTokens()
+    {
+        Footprints.Footprint cart = footprint(List.of("ul:not(.cart-preview) li.list-item"), List.of("/cart"));
+
+        assertTrue(ImpactSelector.isAffected(cart, List.of("li")));
+        assertFalse(ImpactSelector.isAffected(cart, List.of("button")));
+        assertFalse(ImpactSelector.isAffected(cart, List.of("li.list-header")));
+    }
+
+    @Test
+    public void testRoutes()
+    {
+        Footprints.Footprint cart = footprint(List.of(), List.of("/cart"));
+
+        assertTrue(ImpactSelector.isAffected(cart, List.of("/github", "/cart")));
+        assertFalse(ImpactSelector.isAffected(cart, List.of("/")));
+    }
+
+    @Test
+    public void testNormalizationAndPattern()
+    {
+        assertEquals("/cart", Footprints.routeOf("http://localhost:8080/cart?x=1"));
+        assertEquals("/", Footprints.routeOf("http://localhost:8080"));
+        assertNull(Footprints.routeOf("about:blank"));
+        assertEquals("#name", Footprints.selectorOf(By.id("name")));
+        assertEquals(".pay", Footprints.selectorOf(By.className("pay")));
+        assertEquals("CartTest#testC,MenuTest#testA+testB",
+                ImpactSelector.surefirePattern(new TreeSet<>(List.of("MenuTest#testA", "MenuTest#testB", "CartTest#testC"))));
+    }
+
+    @Test
+    public void testTestsWithoutFootprintAreAlwaysSelected()
+    {
+        Map<String, Footprints.Footprint> footprints = Map.of(
+                "CartTest#testEmptyCart", footprint(List.of("div.list"), List.of("/cart")),
+                "MenuTest#testMenuEntries", footprint(List.of("li[data-v-a9662a08]"), List.of("/")));
+        Set<String> discovered = Set.of("CartTest#testEmptyCart", "MenuTest#testMenuEntries", "AccessibilityTest#testMenuPageIsAccessible");
+
+        assertEquals(Set.of("CartTest#testEmptyCart", "AccessibilityTest#testMenuPageIsAccessible"),
+                ImpactSelector.select(footprints, discovered, List.of("/cart")));
+    }
+}
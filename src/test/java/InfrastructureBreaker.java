@@ -0,0 +1,207 @@
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.LifecycleMethodExecutionExceptionHandler;
+import org.junit.jupiter.api.extension.TestWatcher;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Circuit breaker for the browser tests (@ExtendWith(InfrastructureBreaker.class)). Failures are either
+// infrastructure failures (no session, browser or site unreachable, page load timed out) or ordinary test
+// failures. After 3 infrastructure failures in a row (-Dcoffeecart.breaker.threshold) the circuit opens:
+// the cause is reported once and every remaining test class and test is skipped without starting a
+// browser. Every 30 s (-Dcoffeecart.breaker.probeSeconds) one test is let through as a probe, anything
+// but another infrastructure failure closes the circuit again. Shared by all test classes of the run.
+public class InfrastructureBreaker implements ExecutionCondition, TestWatcher, LifecycleMethodExecutionExceptionHandler
+{
+    private static final Circuit circuit = new Circuit(Integer.getInteger("coffeecart.breaker.threshold", 3),
+            TimeUnit.SECONDS.toNanos(Long.getLong("coffeecart.breaker.probeSeconds", 30)), System::nanoTime);
+
+    // Browser and network error pages reported by a failed navigation
+    private static final List<String> unreachableMessages = List.of(
+            "about:neterror", "ERR_CONNECTION_REFUSED", "ERR_NAME_NOT_RESOLVED", "ERR_CONNECTION_RESET",
+            "ERR_INTERNET_DISCONNECTED", "ERR_ADDRESS_UNREACHABLE", "ERR_CONNECTION_TIMED_OUT", "Connection refused");
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context)
+    {
+        // Classes are only let through for a due probe, the probe itself is claimed by the first test
+        boolean isTest = context.getTestMethod().isPresent();
+
+        return circuit.allows(isTest)
+                ? ConditionEvaluationResult.enabled("infrastructure available")
+                : ConditionEvaluationResult.disabled("Infrastructure unavailable, skipped by InfrastructureBreaker: " + circuit.cause());
+    }
+
+    @Override
+    public void testSuccessful(ExtensionContext context)
+    {
+        circuit.recordSuccess();
+    }
+
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause)
+    {
+        record(context, cause);
+    }
+
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause)
+    {
+        record(context, cause);
+    }
+
+    @Override
+    public void handleBeforeAllMethodExecutionException(ExtensionContext context, Throwable throwable) throws Throwable
+    {
+        record(context, throwable);
+        throw throwable;
+    }
+
+    private static void record(ExtensionContext context, Throwable cause)
+    {
+        if (!isInfrastructureFailure(cause))
+        {
+            circuit.recordSuccess();
+            return;
+        }
+
+        String test = context.getTestClass().map(Class::getSimpleName).orElse("")
+                + context.getTestMethod().map(method -> "#" + method.getName()).orElse("");
+        String description = test + ": " + cause.getClass().getSimpleName() + ": " + firstLine(cause.getMessage());
+
+        if (circuit.recordInfrastructureFailure(description))
+        {
+            System.err.printf("InfrastructureBreaker opened after %d infrastructure failures in a row, skipping the "
+                            + "remaining tests and probing every %d s. Last failure: %s%n",
+                    circuit.threshold, TimeUnit.NANOSECONDS.toSeconds(circuit.probeIntervalNanos), description);
+        }
+    }
+
+    static boolean isInfrastructureFailure(Throwable throwable)
+    {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause())
+        {
+            if (cause instanceof SessionNotCreatedException || cause instanceof UnreachableBrowserException
+                    || cause instanceof NoSuchSessionException || cause instanceof ConnectException
+                    || cause instanceof UnknownHostException || cause instanceof HttpConnectTimeoutException)
+            {
+                return true;
+            }
+
+            String message = Optional.ofNullable(cause.getMessage()).orElse("");
+
+            // WebDriverWait's timeouts are ordinary test failures, the browser's own page load timeout is not
+            if (cause instanceof TimeoutException && !message.startsWith("Expected condition failed"))
+            {
+                return true;
+            }
+
+            if (unreachableMessages.stream().anyMatch(message::contains))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static String firstLine(String message)
+    {
+        return message == null ? "" : message.lines().findFirst().orElse("");
+    }
+
+    static final class Circuit
+    {
+        private final int threshold;
+        private final long probeIntervalNanos;
+        private final LongSupplier clock;
+        private int consecutiveFailures;
+        private boolean open;
+        private boolean probing;
+        private long openedAt;
+        private String cause = "";
+
+        Circuit(int threshold, long probeIntervalNanos, LongSupplier clock)
+        {
+            this.threshold = threshold;
+            this.probeIntervalNanos = probeIntervalNanos;
+            this.clock = clock;
+        }
+
+        synchronized boolean allows(boolean claimProbe)
+        {
+            if (!open)
+            {
+                return true;
+            }
+
+            if (probing || clock.getAsLong() - openedAt < probeIntervalNanos)
+            {
+                return false;
+            }
+
+            probing = claimProbe;
+
+            return true;
+        }
+
+        // Returns whether this failure opened the circuit
+        synchronized boolean recordInfrastructureFailure(String description)
+        {
+            cause = description;
+            consecutiveFailures++;
+
+            if (open)
+            {
+                // A failed probe waits for the next interval
+                probing = false;
+                openedAt = clock.getAsLong();
+
+                return false;
+            }
+
+            if (consecutiveFailures >= threshold)
+            {
+                open = true;
+                openedAt = clock.getAsLong();
+
+                return true;
+            }
+
+            return false;
+        }
+
+        synchronized void recordSuccess()
+        {
+            if (open)
+            {
+                System.err.println("InfrastructureBreaker closed, infrastructure is available again");
+            }
+
+            consecutiveFailures = 0;
+            open = false;
+            probing = false;
+        }
+
+        synchronized boolean isOpen()
+        {
+            return open;
+        }
+
+        synchronized String cause()
+        {
+            return cause;
+        }
+    }
+}
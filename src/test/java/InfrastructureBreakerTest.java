@@ -0,0 +1,60 @@
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.opentest4j.AssertionFailedError;
+
+import java.net.ConnectException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InfrastructureBreakerTest
+{
+    @Test
+    public void testClassification()
+    {
+        assertTrue(InfrastructureBreaker.isInfrastructureFailure(new SessionNotCreatedException("no browser")));
+        assertTrue(InfrastructureBreaker.isInfrastructureFailure(
+                new WebDriverException("Reached error page: about:neterror?e=connectionFailure")));
+        assertTrue(InfrastructureBreaker.isInfrastructureFailure(new WebDriverException(new ConnectException("refused"))));
+        assertTrue(InfrastructureBreaker.isInfrastructureFailure(new TimeoutException("Navigation timed out after 300000 ms")));
+
+        assertFalse(InfrastructureBreaker.isInfrastructureFailure(
+                new TimeoutException("Expected condition failed: waiting for visibility of element")));
+        assertFalse(InfrastructureBreaker.isInfrastructureFailure(new AssertionFailedError("expected: <10> but was: <12>")));
+    }
+
+    @Test
+    public void testOpensAfterThresholdAndProbes()
+    {
+        AtomicLong now = new AtomicLong();
+        InfrastructureBreaker.Circuit circuit = new InfrastructureBreaker.Circuit(3, 1_000, now::get);
+
+        circuit.recordInfrastructureFailure("a");
+        circuit.recordSuccess();
+        circuit.recordInfrastructureFailure("b");
+        circuit.recordInfrastructureFailure("c");
+        assertTrue(circuit.allows(true));
+
+        assertTrue(circuit.recordInfrastructureFailure("d"));
+        assertFalse(circuit.allows(false));
+        assertFalse(circuit.allows(true));
+
+        now.set(1_000);
+        assertTrue(circuit.allows(false));
+        assertTrue(circuit.allows(true));
+        // Only one probe at a time
+        assertFalse(circuit.allows(true));
+
+        assertFalse(circuit.recordInfrastructureFailure("e"));
+        assertFalse(circuit.allows(true));
+
+        now.set(2_000);
+        assertTrue(circuit.allows(true));
+        circuit.recordSuccess();
+        assertFalse(circuit.isOpen());
+        assertTrue(circuit.allows(true));
+    }
+}
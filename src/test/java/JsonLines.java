@@ -0,0 +1,100 @@
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Append-only JSON Lines file. Every line is flushed as soon as it is written, so a run that is
+// killed half way still leaves every completed line on disk.
+public final class JsonLines implements AutoCloseable
+{
+    private static final Json json = new Json();
+
+    private final BufferedWriter writer;
+
+    private JsonLines(BufferedWriter writer)
+    {
+        this.writer = writer;
+    }
+
+    public static JsonLines create(Path file)
+    {
+        try
+        {
+            return new JsonLines(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static String toJson(Object value)
+    {
+        StringBuilder builder = new StringBuilder();
+
+        try (JsonOutput output = json.newOutput(builder))
+        {
+            output.setPrettyPrint(false);
+            output.write(value);
+        }
+
+        return builder.toString();
+    }
+
+    public static Map<String, Object> parse(String line)
+    {
+        return json.toType(line, Json.MAP_TYPE);
+    }
+
+    public static List<Map<String, Object>> read(Path file)
+    {
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8))
+        {
+            // A killed run may leave a truncated last line behind
+            return lines.filter(line -> line.endsWith("}"))
+                    .map(JsonLines::parse)
+                    .toList();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized void append(Map<String, ?> record)
+    {
+        try
+        {
+            writer.write(toJson(record));
+            writer.newLine();
+            writer.flush();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        try
+        {
+            writer.close();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes one line per finished test to target/test-results.jsonl (-Dcoffeecart.results.file), or to
+// target/test-results-<profile>.jsonl when running under a throttle profile.
+// Listener callbacks run on the thread that executes the test, which is what lets the per-thread
+// PhaseTimings line up with the test being reported.
+public class JsonlResultsListener implements TestExecutionListener
+{
+    private JsonLines results;
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan)
+    {
+        ThrottleProfile profile = Throttling.profile();
+        String defaultName = profile == ThrottleProfile.NONE ? "test-results.jsonl" : "test-results-" + profile.key() + ".jsonl";
+
+        results = JsonLines.create(SuiteOutput.file("coffeecart.results.file", defaultName));
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan)
+    {
+        if (results != null)
+        {
+            results.close();
+            results = null;
+        }
+
+        try (JsonLines waits = JsonLines.create(SuiteOutput.file("coffeecart.waits.file", "wait-statistics.jsonl")))
+        {
+            WaitStatistics.summary().forEach(waits::append);
+        }
+
+        List<Map<String, Object>> checkpoints = Checkpoints.summary();
+
+        if (!checkpoints.isEmpty())
+        {
+            try (JsonLines lines = JsonLines.create(SuiteOutput.file("coffeecart.checkpoints.file", "checkpoints.jsonl")))
+            {
+                checkpoints.forEach(lines::append);
+            }
+
+            checkpoints.forEach(record -> System.out.printf("Checkpoint %s#%s: %s prefix runs, %s restores, %s failed, %.1f ms setup saved%n",
+                    record.get("class"), record.get("checkpoint"), record.get("prefixRuns"), record.get("restores"),
+                    record.get("failedRestores"), (Double) record.get("savedMillis")));
+        }
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier)
+    {
+        if (testIdentifier.isTest())
+        {
+            CurrentTest.set(testIdentifier);
+            PhaseTimings.current().begin();
+            WaitStatistics.beginTest();
+            ResourceUsage.current().begin();
+        }
+    }
+
+    @Override
+    public void executionSkipped(TestIdentifier testIdentifier, String reason)
+    {
+        if (testIdentifier.isTest() && results != null)
+        {
+            Map<String, Object> record = baseRecord(CurrentTest.of(testIdentifier), "SKIPPED");
+            record.put("reason", reason);
+
+            results.append(record);
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult)
+    {
+        if (!testIdentifier.isTest())
+        {
+            return;
+        }
+
+        Map<TestPhase, Long> phases = PhaseTimings.current().finish();
+        long durationNanos = phases.values().stream().mapToLong(Long::longValue).sum();
+        ResourceUsage.Usage usage = ResourceUsage.current().finish();
+
+        if (results != null)
+        {
+            Map<String, Object> record = baseRecord(CurrentTest.get(), testExecutionResult.getStatus().name());
+            record.put("durationMillis", millis(durationNanos));
+
+            Map<String, Object> phaseMillis = new LinkedHashMap<>();
+            phases.forEach((phase, nanos) -> phaseMillis.put(phase.key(), millis(nanos)));
+            record.put("phases", phaseMillis);
+            record.put("waitMillis", millis(WaitStatistics.currentTestWaitNanos()));
+            record.put("waits", WaitStatistics.currentTestWaits());
+            record.put("resources", usage.toRecord());
+
+            testExecutionResult.getThrowable()
+                    .ifPresent(throwable -> record.put("failure", throwable.getClass().getName()));
+
+            results.append(record);
+        }
+
+        CurrentTest.clear();
+    }
+
+    private static Map<String, Object> baseRecord(CurrentTest test, String status)
+    {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("timestamp", Instant.now().toString());
+        record.put("class", test.className());
+        record.put("method", test.methodName());
+        record.put("displayName", test.displayName());
+        record.put("thread", Thread.currentThread().getName());
+        record.put("browser", Browser.current().key());
+        record.put("profile", Throttling.profile().key());
+        record.put("status", status);
+
+        return record;
+    }
+
+    private static double millis(long nanos)
+    {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
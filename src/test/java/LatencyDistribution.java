@@ -0,0 +1,29 @@
+import java.util.Random;
+
+// Response time model for the stand-in backend, sampled once per request
+@FunctionalInterface
+public interface LatencyDistribution
+{
+    long sampleMillis(Random random);
+
+    static LatencyDistribution none()
+    {
+        return random -> 0;
+    }
+
+    static LatencyDistribution fixed(long millis)
+    {
+        return random -> millis;
+    }
+
+    static LatencyDistribution uniform(long minMillis, long maxMillis)
+    {
+        return random -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+    }
+
+    // Long tailed, like most real services: half the requests are faster than the median
+    static LatencyDistribution logNormal(long medianMillis, double sigma)
+    {
+        return random -> Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+    }
+}
@@ -0,0 +1,143 @@
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Holds back new tests of a parallel run while the host is short of memory. A test starts when
+// MemAvailable (/proc/meminfo) covers a reserve of 512 MB (-Dcoffeecart.governor.reserveMb), one more
+// browser at the largest peak seen so far (ResourceUsage; 600 MB before the first measurement,
+// -Dcoffeecart.governor.browserMb) and what the running tests' browsers are still expected to grow by.
+// A test is always admitted when none is running, so a run slows down instead of stalling or being
+// OOM-killed. -Dcoffeecart.governor=false turns it off. Listed first in the listener services file so
+// the time spent waiting is not counted as part of the test.
+public class MemoryGovernor implements TestExecutionListener
+{
+    private static final boolean enabled = Boolean.parseBoolean(System.getProperty("coffeecart.governor", "true"))
+            && Files.isReadable(Path.of("/proc/meminfo"));
+    private static final long reserveBytes = Long.getLong("coffeecart.governor.reserveMb", 512) * 1024 * 1024;
+    private static final long defaultBrowserBytes = Long.getLong("coffeecart.governor.browserMb", 600) * 1024 * 1024;
+    private static final long pollMillis = 250;
+
+    private final Object lock = new Object();
+    private int running;
+    private int heldTests;
+    private long heldNanos;
+    private long lowestAvailableBytes = Long.MAX_VALUE;
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan)
+    {
+        synchronized (lock)
+        {
+            if (heldTests > 0)
+            {
+                System.out.printf("MemoryGovernor held back %d test starts for %.1f s in total, lowest MemAvailable %.0f MB%n",
+                        heldTests, heldNanos / 1e9, ResourceUsage.megabytes(lowestAvailableBytes));
+            }
+        }
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier)
+    {
+        if (!testIdentifier.isTest() || !enabled)
+        {
+            return;
+        }
+
+        synchronized (lock)
+        {
+            long started = System.nanoTime();
+            boolean held = false;
+            long available;
+
+            while ((available = availableBytes()) >= 0 && available < neededBytes() && running > 0)
+            {
+                if (!held)
+                {
+                    System.out.printf("MemoryGovernor: %.0f MB available, %d tests running, holding back %s%n",
+                            ResourceUsage.megabytes(available), running, testIdentifier.getDisplayName());
+                    held = true;
+                }
+
+                lowestAvailableBytes = Math.min(lowestAvailableBytes, available);
+
+                try
+                {
+                    lock.wait(pollMillis);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            if (available >= 0)
+            {
+                lowestAvailableBytes = Math.min(lowestAvailableBytes, available);
+
+                if (available < neededBytes())
+                {
+                    System.out.printf("MemoryGovernor: only %.0f MB available, running %s alone%n",
+                            ResourceUsage.megabytes(available), testIdentifier.getDisplayName());
+                }
+            }
+
+            if (held)
+            {
+                heldTests++;
+                heldNanos += System.nanoTime() - started;
+            }
+
+            running++;
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult)
+    {
+        if (!testIdentifier.isTest() || !enabled)
+        {
+            return;
+        }
+
+        synchronized (lock)
+        {
+            running--;
+            lock.notifyAll();
+        }
+    }
+
+    private static long neededBytes()
+    {
+        long browserBytes = ResourceUsage.largestPeakRssBytes() > 0 ? ResourceUsage.largestPeakRssBytes() : defaultBrowserBytes;
+
+        return reserveBytes + browserBytes + ResourceUsage.unclaimedBytes(browserBytes);
+    }
+
+    // MemAvailable from /proc/meminfo, -1 when it cannot be read
+    static long availableBytes()
+    {
+        try
+        {
+            for (String line : Files.readAllLines(Path.of("/proc/meminfo")))
+            {
+                if (line.startsWith("MemAvailable:"))
+                {
+                    return Long.parseLong(line.substring(13).replace("kB", "").trim()) * 1024;
+                }
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            // Treated as unknown, tests are admitted
+        }
+
+        return -1;
+    }
+}
@@ -1,8 +1,8 @@
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.openqa.selenium.*;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -14,61 +14,42 @@ import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+@Tag("browser")
+@ExtendWith(InfrastructureBreaker.class)
 public class MenuTest
 {
-    private static FirefoxOptions firefoxOptions;
+    private static Capabilities browserOptions;
     private WebDriver webDriver;
     private WebDriverWait wait;
 
-    private static final String menuUrl = "https://coffee-cart.app/";
-
-    private static final List<String> validEnglishNames = List.of(
-            "Espresso",
-            "Espresso Macchiato",
-            "Cappuccino",
-            "Mocha",
-            "Flat White",
-            "Americano",
-            "Cafe Latte",
-            "Espresso Con Panna",
-            "Cafe Breve"
-    );
-
-    private static final List<String> validChineseNames = List.of(
-            "特浓咖啡",
-            "浓缩玛奇朵",
-            "卡布奇诺",
-            "摩卡",
-            "平白咖啡",
-            "美式咖啡",
-            "拿铁",
-            "浓缩康宝蓝",
-            "半拿铁"
-    );
-
-    private static final int itemsToPromo = 3;
+    private static final CoffeeCatalog catalog = CoffeeCatalog.get();
+    private static final String menuUrl = catalog.url("menu");
+
+    private static final List<String> validEnglishNames = catalog.names();
+    private static final List<String> validChineseNames = catalog.names("zh");
+
+    private static final int itemsToPromo = catalog.promo().everyItems();
 
     @BeforeAll
     public static void setupClass()
     {
-        WebDriverManager.firefoxdriver().setup();
+        Browser.current().setupDriver();
 
-        firefoxOptions = new FirefoxOptions();
-        firefoxOptions.addArguments("--headless");
+        browserOptions = Drivers.defaultOptions();
     }
 
     @BeforeEach
     public void setup()
     {
-        webDriver = new FirefoxDriver(firefoxOptions);
-        wait = new WebDriverWait(webDriver, Duration.ofSeconds(5));
+        webDriver = Drivers.create(browserOptions);
+        wait = new TimedWait(webDriver, Duration.ofSeconds(5));
         webDriver.get(menuUrl);
     }
 
     @AfterEach
     public void teardown()
     {
-        webDriver.quit();
+        Drivers.quit(webDriver);
     }
 
     private void doubleClick(WebElement element)
@@ -106,10 +87,7 @@ public class MenuTest
 
     private BigDecimal getEntryPrice(WebElement entryElement)
     {
-        String priceText = getEntryPriceText(entryElement);
-        String number = priceText.substring(1); // Delete $ sign
-
-        return new BigDecimal(number);
+        return PriceParsing.price(getEntryPriceText(entryElement));
     }
 
     private String getEntryName(WebElement element)
@@ -131,19 +109,49 @@ public class MenuTest
                 .toList();
     }
 
+    private Elements getMenuEntriesSnapshot()
+    {
+        return DomSnapshot.of(webDriver).select("li[data-v-a9662a08]");
+    }
+
+    private String getEntryPriceText(Element entry)
+    {
+        return entry.selectFirst("h4 small").text();
+    }
+
+    private String getEntryName(Element entry)
+    {
+        String nameWithPrice = entry.selectFirst("h4").text();
+
+        String priceText = getEntryPriceText(entry);
+        int lengthWithoutPrice = nameWithPrice.length() - priceText.length();
+
+        return nameWithPrice.substring(0, lengthWithoutPrice).trim();
+    }
+
+    private List<String> getMenuEntriesNamesSnapshot()
+    {
+        return getMenuEntriesSnapshot().stream()
+                .map(this::getEntryName)
+                .toList();
+    }
+
     private WebElement getPayButton()
     {
         return webDriver.findElement(By.cssSelector("button.pay"));
     }
 
-    private void assertPriceOnButtonIsEqual(BigDecimal expectedPrice)
+    private BigDecimal getPriceOnPayButton()
     {
-        WebElement payButton = getPayButton();
-        String staticText = "Total: $";
+        return PriceParsing.price(getPayButton().getText());
+    }
 
-        BigDecimal buttonValue = new BigDecimal(payButton.getText().substring(staticText.length()));
+    private void assertPriceOnButtonIsEqual(BigDecimal expectedPrice)
+    {
+        BigDecimal buttonValue = getPriceOnPayButton();
 
-        assertEquals(expectedPrice.stripTrailingZeros(), buttonValue.stripTrailingZeros());
+        assertTrue(PriceParsing.isSamePrice(expectedPrice, buttonValue),
+                () -> "expected: <" + expectedPrice + "> but was: <" + buttonValue + ">");
     }
 
     private WebElement getCartPreview()
@@ -227,8 +235,7 @@ public class MenuTest
     @Test
     public void testMenuHeadersEnglishNamesAreValid()
     {
-        List<WebElement> menuEntries = getMenuEntries();
-        List<String> names = getMenuEntriesNames(menuEntries);
+        List<String> names = getMenuEntriesNamesSnapshot();
 
         assertEquals(validEnglishNames, names);
     }
@@ -244,7 +251,7 @@ public class MenuTest
             doubleClick(menuHeader);
         }
 
-        List<String> names = getMenuEntriesNames(menuEntries);
+        List<String> names = getMenuEntriesNamesSnapshot();
 
         assertEquals(validChineseNames, names);
     }
@@ -271,32 +278,20 @@ public class MenuTest
     {
         List<WebElement> menuHeaders = getMenuEntries().stream().map(this::getEntryHeader).toList();
 
-        for (WebElement menuHeader : menuHeaders)
-        {
-            String colorBefore = menuHeader.getCssValue("color");
-
-            new Actions(webDriver)
-                    .moveToElement(menuHeader)
-                    .perform();
-
-            String colorOnHover = menuHeader.getCssValue("color");
+        ComputedStyles.HoverStyles styles = ComputedStyles.readAroundHover(webDriver, menuHeaders, "color");
 
-            new Actions(webDriver)
-                    .moveToLocation(0, 0)
-                    .perform();
-
-            String colorOnMouseOff = menuHeader.getCssValue("color");
-
-            assertEquals("rgb(0, 0, 0)", colorBefore);
-            assertEquals("rgb(218, 165, 32)", colorOnHover);
-            assertEquals("rgb(0, 0, 0)", colorOnMouseOff);
+        for (int i = 0; i < menuHeaders.size(); ++i)
+        {
+            assertEquals(CssColor.black, styles.before().color(i));
+            assertEquals(CssColor.goldenrod, styles.hovered().color(i));
+            assertEquals(CssColor.black, styles.after().color(i));
         }
     }
 
     @Test
     public void testPricesAreValid()
     {
-        List<String> prices = getMenuEntries().stream().map(this::getEntryPriceText).toList();
+        List<String> prices = getMenuEntriesSnapshot().stream().map(this::getEntryPriceText).toList();
 
         String regex = "^\\$[0-9]+\\.[0-9]{2}$";
 
@@ -311,25 +306,13 @@ public class MenuTest
     {
         List<WebElement> cups = getMenuEntries().stream().map(this::getEntryCup).toList();
 
-        for (WebElement cup : cups)
-        {
-            String transformBefore = cup.getCssValue("transform");
-
-            new Actions(webDriver)
-                    .moveToElement(cup)
-                    .perform();
-
-            String transformOnHover = cup.getCssValue("transform");
+        ComputedStyles.HoverStyles styles = ComputedStyles.readAroundHover(webDriver, cups, "transform");
 
-            new Actions(webDriver)
-                    .moveToLocation(0, 0)
-                    .perform();
-
-            String transformOnMouseOff = cup.getCssValue("transform");
-
-            assertEquals("none", transformBefore);
-            assertTrue(transformOnHover.contains("matrix"));
-            assertEquals("none", transformOnMouseOff);
+        for (int i = 0; i < cups.size(); ++i)
+        {
+            assertEquals("none", styles.before().raw(i, "transform"));
+            assertTrue(styles.hovered().transform(i).isRotated());
+            assertEquals("none", styles.after().raw(i, "transform"));
         }
     }
 
@@ -431,7 +414,7 @@ public class MenuTest
 
         List<WebElement> cartPreviewEntries = getCartPreviewEntries();
 
-        assertEquals(9, cartPreviewEntries.size());
+        assertEquals(catalog.size(), cartPreviewEntries.size());
 
         for (WebElement previewEntry : cartPreviewEntries)
         {
@@ -567,17 +550,17 @@ public class MenuTest
 
     private BigDecimal addItemsToCartToShowPromo()
     {
-        WebElement menuEntry = getMenuEntries().getFirst();
-        WebElement cupElement = getEntryCup(menuEntry);
-        BigDecimal entryPrice = getEntryPrice(menuEntry);
+        BigDecimal expectedPrice = getEntryPrice(getMenuEntries().getFirst()).multiply(BigDecimal.valueOf(itemsToPromo));
 
-        BigDecimal expectedPrice = BigDecimal.ZERO;
+        // Restored only if both the promo and the cart came back
+        Checkpoints.reach(webDriver, "promo shown", () -> {
+            WebElement cupElement = getEntryCup(getMenuEntries().getFirst());
 
-        for (int i = 0; i < itemsToPromo; ++i)
-        {
-            expectedPrice = expectedPrice.add(entryPrice);
-            cupElement.click();
-        }
+            for (int i = 0; i < itemsToPromo; ++i)
+            {
+                cupElement.click();
+            }
+        }, () -> !webDriver.findElements(By.className("promo")).isEmpty() && getPriceOnPayButton().compareTo(expectedPrice) == 0);
 
         return expectedPrice;
     }
@@ -609,7 +592,7 @@ public class MenuTest
     @Test
     public void testAcceptPromoButtonAddsPrice()
     {
-        BigDecimal discountedPrice = new BigDecimal("4.00");
+        BigDecimal discountedPrice = catalog.promo().discountedPrice();
         BigDecimal expectedPrice = addItemsToCartToShowPromo();
 
         WebElement acceptButton = getAcceptPromoButton();
@@ -633,7 +616,7 @@ public class MenuTest
         WebElement cartPreviewFirstEntry = getCartPreviewEntries().getFirst();
         String entryName = getCartPreviewEntryName(cartPreviewFirstEntry);
 
-        assertEquals("(Discounted) Mocha", entryName);
+        assertEquals(catalog.promo().discountedName(), entryName);
     }
 
     private boolean isSorted(List<String> strings)
@@ -1,14 +1,16 @@
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
 
 import java.util.List;
 import java.util.stream.Stream;
@@ -16,34 +18,33 @@ import java.util.stream.Stream;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+@Tag("browser")
+@ExtendWith(InfrastructureBreaker.class)
 public class NavigationTest
 {
-    private static FirefoxOptions firefoxOptions;
+    private static Capabilities browserOptions;
     private WebDriver webDriver;
 
-    private static final String menuUrl = "https://coffee-cart.app/";
-    private static final String cartUrl = "https://coffee-cart.app/cart";
-    private static final String githubUrl = "https://coffee-cart.app/github";
+    private static final List<String> urls = CoffeeCatalog.get().urls();
 
     @BeforeAll
     public static void setupClass()
     {
-        WebDriverManager.firefoxdriver().setup();
+        Browser.current().setupDriver();
 
-        firefoxOptions = new FirefoxOptions();
-        firefoxOptions.addArguments("--headless");
+        browserOptions = Drivers.defaultOptions();
     }
 
     @BeforeEach
     public void setup()
     {
-        webDriver = new FirefoxDriver(firefoxOptions);
+        webDriver = Drivers.create(browserOptions);
     }
 
     @AfterEach
     public void teardown()
     {
-        webDriver.quit();
+        Drivers.quit(webDriver);
     }
 
     private WebElement getNavigation()
@@ -58,13 +59,14 @@ public class NavigationTest
         return navigation.findElements(By.cssSelector("li[data-v-bb7b5941]"));
     }
 
+    private Elements getNavigationLinksSnapshot()
+    {
+        return DomSnapshot.of(webDriver, "#app ul[data-v-bb7b5941]").select("li[data-v-bb7b5941]");
+    }
+
     private static Stream<String> urlProvider()
     {
-        return Stream.of(
-                menuUrl,
-                cartUrl,
-                githubUrl
-        );
+        return urls.stream();
     }
 
     @ParameterizedTest
@@ -84,7 +86,7 @@ public class NavigationTest
     {
         webDriver.get(url);
 
-        List<WebElement> links = getNavigationLinks();
+        Elements links = getNavigationLinksSnapshot();
 
         assertEquals(3, links.size());
     }
@@ -109,15 +111,15 @@ public class NavigationTest
     {
         webDriver.get(url);
 
-        List<WebElement> links = getNavigationLinks();
+        Elements links = getNavigationLinksSnapshot();
 
-        WebElement menuLink = links.get(0);
-        WebElement cartLink = links.get(1);
-        WebElement githubLink = links.get(2);
+        Element menuLink = links.get(0);
+        Element cartLink = links.get(1);
+        Element githubLink = links.get(2);
 
-        assertEquals("menu", menuLink.getText());
-        assertEquals("cart (0)", cartLink.getText());
-        assertEquals("github", githubLink.getText());
+        assertEquals("menu", menuLink.text());
+        assertEquals("cart (0)", cartLink.text());
+        assertEquals("github", githubLink.text());
 
         // cart (X)
         // where X is non-negative number
@@ -129,9 +131,7 @@ public class NavigationTest
     @MethodSource("urlProvider")
     public void testNavigationLinksAreValid(String url)
     {
-        final List<String> urlOrder = List.of(menuUrl, cartUrl, githubUrl);
-
-        for (int linkIndex = 0; linkIndex < 3; ++linkIndex)
+        for (int linkIndex = 0; linkIndex < urls.size(); ++linkIndex)
         {
             webDriver.get(url);
 
@@ -140,13 +140,13 @@ public class NavigationTest
             WebElement link = links.get(linkIndex);
             link.click();
 
-            assertEquals(urlOrder.get(linkIndex), webDriver.getCurrentUrl());
+            assertEquals(urls.get(linkIndex), webDriver.getCurrentUrl());
         }
     }
 
-    private String getLinkColor(WebElement link)
+    private List<WebElement> getNavigationAnchors()
     {
-        return link.findElement(By.tagName("a")).getCssValue("color");
+        return getNavigation().findElements(By.cssSelector("li[data-v-bb7b5941] a"));
     }
 
     @ParameterizedTest
@@ -155,18 +155,20 @@ public class NavigationTest
     {
         webDriver.get(url);
 
-        List<WebElement> links = getNavigationLinks();
+        List<WebElement> anchors = getNavigationAnchors();
+        StyleTable styles = ComputedStyles.read(webDriver, anchors, "color");
+        List<String> hrefs = DomSnapshot.of(webDriver).select("#app ul[data-v-bb7b5941] li[data-v-bb7b5941] a").eachAttr("abs:href");
 
-        for (WebElement link : links)
+        for (int i = 0; i < anchors.size(); ++i)
         {
             // Current page
-            if (link.findElement(By.tagName("a")).getAttribute("href").equals(url))
+            if (hrefs.get(i).equals(url))
             {
-                assertEquals("rgb(218, 165, 32)", getLinkColor(link));
+                assertEquals(CssColor.goldenrod, styles.color(i));
             }
             else
             {
-                assertEquals("rgb(0, 0, 0)", getLinkColor(link));
+                assertEquals(CssColor.black, styles.color(i));
             }
         }
     }
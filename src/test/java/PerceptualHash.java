@@ -0,0 +1,90 @@
+import java.awt.image.BufferedImage;
+import java.util.HexFormat;
+
+// Block mean hash in color: the image is divided into 16x16 cells and each cell's mean color, with 4
+// bits per channel, is one entry of the hash. Rendering noise such as anti-aliasing barely moves a mean,
+// while a changed layout, color or image changes the cells it covers. Changes too small to move any
+// cell's mean by a quantization step (1/16 of a channel) produce the same hash.
+public final class PerceptualHash
+{
+    private static final int grid = 16;
+
+    private final byte[] cells;
+
+    private PerceptualHash(byte[] cells)
+    {
+        this.cells = cells;
+    }
+
+    public static PerceptualHash of(BufferedImage image)
+    {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        long[] sums = new long[grid * grid * 3];
+        long[] counts = new long[grid * grid];
+        int[] pixels = PixelDiff.argb(image);
+        int[] cellColumns = new int[width];
+
+        for (int x = 0; x < width; x++)
+        {
+            cellColumns[x] = x * grid / width;
+        }
+
+        for (int y = 0; y < height; y++)
+        {
+            int cellRow = y * grid / height * grid;
+
+            for (int x = 0; x < width; x++)
+            {
+                int cell = cellRow + cellColumns[x];
+                int rgb = pixels[y * width + x];
+
+                sums[cell * 3] += (rgb >> 16) & 0xFF;
+                sums[cell * 3 + 1] += (rgb >> 8) & 0xFF;
+                sums[cell * 3 + 2] += rgb & 0xFF;
+                counts[cell]++;
+            }
+        }
+
+        byte[] cells = new byte[grid * grid * 3];
+
+        for (int i = 0; i < cells.length; i++)
+        {
+            long count = Math.max(1, counts[i / 3]);
+            cells[i] = (byte) ((sums[i] / count) >> 4);
+        }
+
+        return new PerceptualHash(cells);
+    }
+
+    public static PerceptualHash parse(String hex)
+    {
+        return new PerceptualHash(HexFormat.of().parseHex(hex.trim()));
+    }
+
+    // Number of cells whose quantized color differs
+    public int distance(PerceptualHash other)
+    {
+        int distance = 0;
+
+        for (int cell = 0; cell < grid * grid; cell++)
+        {
+            for (int channel = 0; channel < 3; channel++)
+            {
+                if (cells[cell * 3 + channel] != other.cells[cell * 3 + channel])
+                {
+                    distance++;
+                    break;
+                }
+            }
+        }
+
+        return distance;
+    }
+
+    @Override
+    public String toString()
+    {
+        return HexFormat.of().formatHex(cells);
+    }
+}
@@ -0,0 +1,114 @@
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Per-thread breakdown of the running test's wall time. Nested phases are folded into the
+// outermost one, so a webDriver.quit() issued during teardown is not counted as an interaction.
+public final class PhaseTimings
+{
+    private static final ThreadLocal<PhaseTimings> current = ThreadLocal.withInitial(PhaseTimings::new);
+
+    private final long[] phaseNanos = new long[TestPhase.values().length];
+    private TestPhase activePhase;
+    private int depth;
+    private long activeSince;
+    private long startedAt = System.nanoTime();
+
+    private PhaseTimings()
+    {
+    }
+
+    public static PhaseTimings current()
+    {
+        return current.get();
+    }
+
+    public void begin()
+    {
+        Arrays.fill(phaseNanos, 0L);
+        activePhase = null;
+        depth = 0;
+        startedAt = System.nanoTime();
+    }
+
+    public void enter(TestPhase phase)
+    {
+        if (depth++ == 0)
+        {
+            activePhase = phase;
+            activeSince = System.nanoTime();
+            Trace.begin("phase", phase.key());
+        }
+    }
+
+    public void exit()
+    {
+        if (depth == 0)
+        {
+            return;
+        }
+
+        if (--depth == 0)
+        {
+            phaseNanos[activePhase.ordinal()] += System.nanoTime() - activeSince;
+            activePhase = null;
+            Trace.end();
+        }
+    }
+
+    public <T> T time(TestPhase phase, Supplier<T> action)
+    {
+        enter(phase);
+
+        try
+        {
+            return action.get();
+        }
+        finally
+        {
+            exit();
+        }
+    }
+
+    public void time(TestPhase phase, Runnable action)
+    {
+        enter(phase);
+
+        try
+        {
+            action.run();
+        }
+        finally
+        {
+            exit();
+        }
+    }
+
+    // Everything that is not driver, navigation or teardown time is Java-side work of the test
+    // itself, which is dominated by assertions.
+    public Map<TestPhase, Long> finish()
+    {
+        while (depth > 0)
+        {
+            exit();
+        }
+
+        long total = System.nanoTime() - startedAt;
+        long accounted = 0;
+        Map<TestPhase, Long> result = new EnumMap<>(TestPhase.class);
+
+        for (TestPhase phase : TestPhase.values())
+        {
+            if (phase != TestPhase.ASSERTIONS)
+            {
+                result.put(phase, phaseNanos[phase.ordinal()]);
+                accounted += phaseNanos[phase.ordinal()];
+            }
+        }
+
+        result.put(TestPhase.ASSERTIONS, Math.max(0L, total - accounted));
+
+        return result;
+    }
+}
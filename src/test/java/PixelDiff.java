@@ -0,0 +1,126 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+
+// Pixel by pixel comparison of two screenshots. Channels within the tolerance count as equal, which
+// absorbs anti-aliasing and sub-pixel text rendering differences.
+public final class PixelDiff
+{
+    private static final int highlight = 0xFFFF0000;
+
+    private PixelDiff()
+    {
+    }
+
+    public record Result(long differentPixels, double ratio)
+    {
+    }
+
+    public static Result compare(BufferedImage baseline, BufferedImage actual, int channelTolerance)
+    {
+        if (baseline.getWidth() != actual.getWidth() || baseline.getHeight() != actual.getHeight())
+        {
+            return new Result((long) Math.max(baseline.getWidth(), actual.getWidth()) * Math.max(baseline.getHeight(), actual.getHeight()), 1.0);
+        }
+
+        int[] expected = argb(baseline);
+        int[] observed = argb(actual);
+        long differentPixels = 0;
+
+        for (int i = 0; i < expected.length; i++)
+        {
+            if (expected[i] != observed[i] && differs(expected[i], observed[i], channelTolerance))
+            {
+                differentPixels++;
+            }
+        }
+
+        return new Result(differentPixels, (double) differentPixels / expected.length);
+    }
+
+    // Differing pixels in red on a faded copy of the baseline, only built for failed comparisons
+    public static BufferedImage highlight(BufferedImage baseline, BufferedImage actual, int channelTolerance)
+    {
+        int width = Math.max(baseline.getWidth(), actual.getWidth());
+        int height = Math.max(baseline.getHeight(), actual.getHeight());
+        int[] expected = pixels(baseline, width, height);
+        int[] observed = pixels(actual, width, height);
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] diff = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+        for (int i = 0; i < diff.length; i++)
+        {
+            diff[i] = differs(expected[i], observed[i], channelTolerance)
+                    ? highlight
+                    : 0xFF000000 | ((expected[i] >> 2) & 0x3F3F3F) + 0xBFBFBF;
+        }
+
+        return image;
+    }
+
+    private static int[] pixels(BufferedImage image, int width, int height)
+    {
+        int[] argb = argb(image);
+
+        if (image.getWidth() == width && image.getHeight() == height)
+        {
+            return argb;
+        }
+
+        int[] pixels = new int[width * height];
+
+        for (int y = 0; y < image.getHeight(); y++)
+        {
+            System.arraycopy(argb, y * image.getWidth(), pixels, y * width, image.getWidth());
+        }
+
+        return pixels;
+    }
+
+    // Decoded PNGs are byte interleaved, reading their buffers directly is an order of magnitude faster
+    // than going through getRGB and the color model
+    static int[] argb(BufferedImage image)
+    {
+        int pixelCount = image.getWidth() * image.getHeight();
+        int[] argb = new int[pixelCount];
+
+        switch (image.getType())
+        {
+            case BufferedImage.TYPE_3BYTE_BGR ->
+            {
+                byte[] data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+
+                for (int i = 0, j = 0; i < pixelCount; i++, j += 3)
+                {
+                    argb[i] = 0xFF000000 | (data[j + 2] & 0xFF) << 16 | (data[j + 1] & 0xFF) << 8 | data[j] & 0xFF;
+                }
+            }
+            case BufferedImage.TYPE_4BYTE_ABGR ->
+            {
+                byte[] data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+
+                for (int i = 0, j = 0; i < pixelCount; i++, j += 4)
+                {
+                    argb[i] = (data[j] & 0xFF) << 24 | (data[j + 3] & 0xFF) << 16 | (data[j + 2] & 0xFF) << 8 | data[j + 1] & 0xFF;
+                }
+            }
+            default -> image.getRGB(0, 0, image.getWidth(), image.getHeight(), argb, 0, image.getWidth());
+        }
+
+        return argb;
+    }
+
+    private static boolean differs(int first, int second, int tolerance)
+    {
+        for (int shift = 0; shift <= 24; shift += 8)
+        {
+            if (Math.abs(((first >> shift) & 0xFF) - ((second >> shift) & 0xFF)) > tolerance)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,192 @@
+import java.math.BigDecimal;
+
+// Prices and amounts as the app prints them: "$10.00" in the menu, "$10.00 x 2" in cart entries and
+// "Total: $19.00" on the pay button. The text is scanned in place instead of split, trimmed and cut into
+// substrings: a price is read from the first '$' (or the start) up to the next whitespace into a long, and
+// only the resulting BigDecimal is allocated, with the same value and scale new BigDecimal(text) gives.
+// The cents variants allocate nothing at all.
+public final class PriceParsing
+{
+    // Longer digit runs could overflow the long, they go through BigDecimal's own parser
+    private static final int maxFastDigits = 18;
+
+    private PriceParsing()
+    {
+    }
+
+    public static BigDecimal price(CharSequence text)
+    {
+        int start = numberStart(text);
+        int end = numberEnd(text, start);
+        long unscaled = 0;
+        int scale = -1;
+        int digits = 0;
+
+        for (int i = start; i < end; i++)
+        {
+            char c = text.charAt(i);
+
+            if (c == '.' && scale < 0)
+            {
+                scale = 0;
+            }
+            else if (c >= '0' && c <= '9')
+            {
+                unscaled = unscaled * 10 + (c - '0');
+                digits++;
+                scale = scale < 0 ? -1 : scale + 1;
+            }
+            else
+            {
+                throw notANumber(text, start, end);
+            }
+        }
+
+        if (digits == 0)
+        {
+            throw notANumber(text, start, end);
+        }
+
+        if (digits > maxFastDigits)
+        {
+            return new BigDecimal(text.subSequence(start, end).toString());
+        }
+
+        return BigDecimal.valueOf(unscaled, Math.max(scale, 0));
+    }
+
+    // "$10.00 x 2" -> 10.00
+    public static BigDecimal unitPrice(CharSequence priceWithAmount)
+    {
+        return price(priceWithAmount);
+    }
+
+    // "$10.00 x 2" -> 2
+    public static int amount(CharSequence priceWithAmount)
+    {
+        int separator = indexOf(priceWithAmount, 'x', 0);
+
+        if (separator < 0)
+        {
+            throw new NumberFormatException("No amount in '" + priceWithAmount + "'");
+        }
+
+        int start = skipWhitespace(priceWithAmount, separator + 1);
+        int end = numberEnd(priceWithAmount, start);
+        int amount = 0;
+
+        for (int i = start; i < end; i++)
+        {
+            char c = priceWithAmount.charAt(i);
+
+            if (c < '0' || c > '9' || amount > (Integer.MAX_VALUE - 9) / 10)
+            {
+                throw notANumber(priceWithAmount, start, end);
+            }
+
+            amount = amount * 10 + (c - '0');
+        }
+
+        if (start == end)
+        {
+            throw notANumber(priceWithAmount, start, end);
+        }
+
+        return amount;
+    }
+
+    // "$10.00" -> 1000, without allocating; at most two decimals
+    public static long cents(CharSequence text)
+    {
+        int start = numberStart(text);
+        int end = numberEnd(text, start);
+        long cents = 0;
+        int decimals = -1;
+
+        for (int i = start; i < end; i++)
+        {
+            char c = text.charAt(i);
+
+            if (c == '.' && decimals < 0)
+            {
+                decimals = 0;
+            }
+            else if (c >= '0' && c <= '9' && decimals < 2 && i - start <= maxFastDigits)
+            {
+                cents = cents * 10 + (c - '0');
+                decimals = decimals < 0 ? -1 : decimals + 1;
+            }
+            else
+            {
+                throw notANumber(text, start, end);
+            }
+        }
+
+        if (start == end || (decimals == 0 && end - start == 1))
+        {
+            throw notANumber(text, start, end);
+        }
+
+        for (int i = Math.max(decimals, 0); i < 2; i++)
+        {
+            cents *= 10;
+        }
+
+        return cents;
+    }
+
+    // Equal in value whatever the scale ("4" and "4.00"), without stripTrailingZeros() copies
+    public static boolean isSamePrice(BigDecimal expected, BigDecimal actual)
+    {
+        return expected.compareTo(actual) == 0;
+    }
+
+    private static int numberStart(CharSequence text)
+    {
+        int dollar = indexOf(text, '$', 0);
+
+        return skipWhitespace(text, dollar < 0 ? 0 : dollar + 1);
+    }
+
+    private static int numberEnd(CharSequence text, int start)
+    {
+        int end = start;
+
+        while (end < text.length() && !Character.isWhitespace(text.charAt(end)))
+        {
+            end++;
+        }
+
+        return end;
+    }
+
+    private static int skipWhitespace(CharSequence text, int from)
+    {
+        int index = from;
+
+        while (index < text.length() && Character.isWhitespace(text.charAt(index)))
+        {
+            index++;
+        }
+
+        return index;
+    }
+
+    private static int indexOf(CharSequence text, char c, int from)
+    {
+        for (int i = from; i < text.length(); i++)
+        {
+            if (text.charAt(i) == c)
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static NumberFormatException notANumber(CharSequence text, int start, int end)
+    {
+        return new NumberFormatException("No number at " + start + ".." + end + " in '" + text + "'");
+    }
+}
@@ -0,0 +1,101 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Usage: java PriceParsingBenchmark [regex]
+// JMH throughput of PriceParsing against the split/substring/stripTrailingZeros code it replaced, with the
+// GC profiler for allocation per call (gc.alloc.rate.norm). Texts are the ones the app renders, kept in
+// non-final fields so the JIT cannot fold them into constants.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PriceParsingBenchmark
+{
+    private String menuPrice = "$10.00";
+    private String cartEntry = "$18.00 x 12";
+    private String payButton = "Total: $123.00";
+    private BigDecimal expectedTotal = new BigDecimal("123");
+    private BigDecimal shownTotal = new BigDecimal("123.00");
+
+    public static void main(String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder()
+                .include(PriceParsingBenchmark.class.getSimpleName() + (args.length > 0 ? "." + args[0] : ""))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    @Benchmark
+    public BigDecimal menuPriceSubstring()
+    {
+        return new BigDecimal(menuPrice.substring(1));
+    }
+
+    @Benchmark
+    public BigDecimal menuPriceScanned()
+    {
+        return PriceParsing.price(menuPrice);
+    }
+
+    @Benchmark
+    public long menuPriceCents()
+    {
+        return PriceParsing.cents(menuPrice);
+    }
+
+    @Benchmark
+    public void cartEntrySplit(Blackhole blackhole)
+    {
+        blackhole.consume(new BigDecimal(cartEntry.split("x")[0].trim().substring(1)));
+        blackhole.consume(Integer.parseInt(cartEntry.split("x")[1].trim()));
+    }
+
+    @Benchmark
+    public void cartEntryScanned(Blackhole blackhole)
+    {
+        blackhole.consume(PriceParsing.unitPrice(cartEntry));
+        blackhole.consume(PriceParsing.amount(cartEntry));
+    }
+
+    @Benchmark
+    public BigDecimal payButtonSubstring()
+    {
+        return new BigDecimal(payButton.substring("Total: $".length()));
+    }
+
+    @Benchmark
+    public BigDecimal payButtonScanned()
+    {
+        return PriceParsing.price(payButton);
+    }
+
+    @Benchmark
+    public boolean comparePricesStripTrailingZeros()
+    {
+        return expectedTotal.stripTrailingZeros().equals(shownTotal.stripTrailingZeros());
+    }
+
+    @Benchmark
+    public boolean comparePricesCompareTo()
+    {
+        return PriceParsing.isSamePrice(expectedTotal, shownTotal);
+    }
+}
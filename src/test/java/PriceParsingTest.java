@@ -0,0 +1,43 @@
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriceParsingTest
+{
+    @Test
+    public void testPricesMatchBigDecimalParsing()
+    {
+        for (String text : new String[] {"$10.00", "$7", "$0.5", "$123456789012345678901.25"})
+        {
+            assertEquals(new BigDecimal(text.substring(1)), PriceParsing.price(text));
+        }
+
+        assertEquals(new BigDecimal("19.00"), PriceParsing.price("Total: $19.00"));
+        assertEquals(new BigDecimal("18.00"), PriceParsing.unitPrice("$18.00 x 12"));
+        assertEquals(12, PriceParsing.amount("$18.00 x 12"));
+    }
+
+    @Test
+    public void testCentsAndScaleFreeComparison()
+    {
+        assertEquals(1000, PriceParsing.cents("$10.00"));
+        assertEquals(1050, PriceParsing.cents("Total: $10.5"));
+        assertEquals(700, PriceParsing.cents("$7 x 3"));
+        assertTrue(PriceParsing.isSamePrice(new BigDecimal("4"), new BigDecimal("4.00")));
+        assertFalse(PriceParsing.isSamePrice(new BigDecimal("4"), new BigDecimal("4.01")));
+    }
+
+    @Test
+    public void testMalformedTextIsRejected()
+    {
+        assertThrows(NumberFormatException.class, () -> PriceParsing.price("Total: $"));
+        assertThrows(NumberFormatException.class, () -> PriceParsing.price("$1.2.3"));
+        assertThrows(NumberFormatException.class, () -> PriceParsing.amount("$18.00"));
+        assertThrows(NumberFormatException.class, () -> PriceParsing.cents("$1.005"));
+    }
+}
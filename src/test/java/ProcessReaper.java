@@ -0,0 +1,220 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+// Makes sure no browser or driver process outlives the run that started it:
+// - every session's processes are tracked and written to a ledger shared by all runs on the host,
+// - a watchdog kills processes that are still alive after their session was quit, or sessions that
+//   were never quit within -Dcoffeecart.reaper.maxSessionMinutes,
+// - a shutdown hook kills whatever is left when the JVM exits,
+// - the first session of a run sweeps processes left behind by runs that were killed. Only processes in the
+//   ledger are touched, so browsers and drivers started by anything else are left alone.
+public final class ProcessReaper
+{
+    private static final Duration releaseGrace = Duration.ofSeconds(Long.getLong("coffeecart.reaper.graceSeconds", 10));
+    private static final Duration maxSessionAge = Duration.ofMinutes(Long.getLong("coffeecart.reaper.maxSessionMinutes", 30));
+    private static final Path ledger = Path.of(System.getProperty("java.io.tmpdir"), "coffeecart-driver-processes.ledger");
+
+    private static final Set<DriverSession> sessions = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger reclaimedByWatchdog = new AtomicInteger();
+    private static boolean started;
+
+    private ProcessReaper()
+    {
+    }
+
+    public static synchronized void start()
+    {
+        if (started)
+        {
+            return;
+        }
+
+        started = true;
+
+        int swept = sweepLeftovers();
+        if (swept > 0)
+        {
+            System.out.printf("Process reaper: reclaimed %d browser/driver processes left behind by earlier runs%n", swept);
+        }
+
+        ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "process-reaper-watchdog");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        watchdog.scheduleWithFixedDelay(ProcessReaper::watch, 5, 5, TimeUnit.SECONDS);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(ProcessReaper::reapAll, "process-reaper-shutdown"));
+    }
+
+    public static void track(DriverSession session)
+    {
+        sessions.add(session);
+
+        List<String> lines = session.processes().roots().stream()
+                .map(BrowserProcesses::ledgerLine)
+                .toList();
+
+        updateLedger(existing -> {
+            List<String> updated = new ArrayList<>(existing);
+            updated.addAll(lines);
+
+            return updated;
+        });
+    }
+
+    public static void released(DriverSession session)
+    {
+        session.markReleased();
+    }
+
+    private static void watch()
+    {
+        Instant now = Instant.now();
+
+        for (DriverSession session : sessions)
+        {
+            if (!session.processes().isAlive())
+            {
+                sessions.remove(session);
+            }
+            else if (session.isReleased() && session.releasedAt().plus(releaseGrace).isBefore(now))
+            {
+                reclaimedByWatchdog.addAndGet(session.processes().kill());
+                sessions.remove(session);
+            }
+            else if (!session.isReleased() && session.createdAt().plus(maxSessionAge).isBefore(now))
+            {
+                System.err.printf("Process reaper: session started at %s was never quit, killing it%n", session.createdAt());
+
+                reclaimedByWatchdog.addAndGet(session.processes().kill());
+                sessions.remove(session);
+            }
+        }
+    }
+
+    private static void reapAll()
+    {
+        int reclaimed = 0;
+
+        for (DriverSession session : sessions)
+        {
+            reclaimed += session.processes().kill();
+        }
+
+        if (reclaimed > 0 || reclaimedByWatchdog.get() > 0)
+        {
+            System.out.printf("Process reaper: reclaimed %d processes during the run and %d at exit%n",
+                    reclaimedByWatchdog.get(), reclaimed);
+        }
+    }
+
+    private static int sweepLeftovers()
+    {
+        AtomicInteger swept = new AtomicInteger();
+
+        updateLedger(existing -> {
+            List<String> kept = new ArrayList<>();
+
+            for (String line : existing)
+            {
+                String[] fields = line.split(" ");
+
+                if (fields.length != 3)
+                {
+                    continue;
+                }
+
+                if (isAlive(Long.parseLong(fields[0])))
+                {
+                    // Belongs to another run that is still going
+                    kept.add(line);
+                    continue;
+                }
+
+                // Same pid and start time, so it is the process we started and not a recycled pid
+                ProcessHandle.of(Long.parseLong(fields[1]))
+                        .filter(process -> process.info().startInstant().map(Instant::toString).orElse("").equals(fields[2]))
+                        .ifPresent(process -> swept.addAndGet(killTree(process)));
+            }
+
+            return kept;
+        });
+
+        return swept.get();
+    }
+
+    private static boolean isAlive(long pid)
+    {
+        return ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false);
+    }
+
+    private static int killTree(ProcessHandle process)
+    {
+        List<ProcessHandle> descendants = process.descendants().toList();
+        int killed = 0;
+
+        for (int i = descendants.size() - 1; i >= 0; --i)
+        {
+            killed += descendants.get(i).destroyForcibly() ? 1 : 0;
+        }
+
+        return killed + (process.destroyForcibly() ? 1 : 0);
+    }
+
+    // The ledger is shared by concurrent runs on the same agent, so every update holds a file lock
+    private static void updateLedger(UnaryOperator<List<String>> update)
+    {
+        try (FileChannel channel = FileChannel.open(ledger, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            FileLock lock = channel.lock();
+
+            try
+            {
+                update(channel, update);
+            }
+            finally
+            {
+                lock.release();
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void update(FileChannel channel, UnaryOperator<List<String>> update) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        while (buffer.hasRemaining() && channel.read(buffer) != -1)
+        {
+            // Keep reading until the whole ledger is in memory
+        }
+
+        String content = new String(buffer.array(), StandardCharsets.UTF_8);
+        List<String> lines = content.isBlank() ? List.of() : List.of(content.strip().split("\n"));
+        String updated = String.join("\n", update.apply(lines));
+
+        channel.truncate(0);
+        channel.write(ByteBuffer.wrap((updated.isEmpty() ? "" : updated + "\n").getBytes(StandardCharsets.UTF_8)), 0);
+    }
+}
@@ -0,0 +1,105 @@
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Run with -Dcoffeecart.benchmarks=true. Compares session start and first page load of a fresh
+// default profile with a clone of the prepared profile template.
+@EnabledIfSystemProperty(named = "coffeecart.benchmarks", matches = "true")
+public class ProfileStartupBenchmarkTest
+{
+    private static final int repeats = 5;
+    private static final String menuUrl = CoffeeCatalog.get().url("menu");
+
+    private static FirefoxOptions firefoxOptions;
+
+    @BeforeAll
+    public static void setupClass()
+    {
+        WebDriverManager.firefoxdriver().setup();
+
+        firefoxOptions = new FirefoxOptions();
+        firefoxOptions.addArguments("--headless");
+
+        // Built up front so the one-off template cost does not land in the first sample
+        ProfileTemplate.template(firefoxOptions);
+    }
+
+    private static double median(double[] samples)
+    {
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+
+        return sorted[sorted.length / 2];
+    }
+
+    private static double millisSince(long startNanos)
+    {
+        return (System.nanoTime() - startNanos) / 1_000_000.0;
+    }
+
+    private static void report(String name, double[] launches, double[] firstLoads)
+    {
+        System.out.printf("%-18s launch %8.1f ms   first menu load %8.1f ms%n", name, median(launches), median(firstLoads));
+    }
+
+    @Test
+    public void benchmarkProfileStartup()
+    {
+        double[] defaultLaunches = new double[repeats];
+        double[] defaultLoads = new double[repeats];
+        double[] templateLaunches = new double[repeats];
+        double[] templateLoads = new double[repeats];
+
+        for (int i = 0; i < repeats; ++i)
+        {
+            long started = System.nanoTime();
+            WebDriver driver = new FirefoxDriver(firefoxOptions);
+            defaultLaunches[i] = millisSince(started);
+
+            try
+            {
+                started = System.nanoTime();
+                driver.get(menuUrl);
+                defaultLoads[i] = millisSince(started);
+            }
+            finally
+            {
+                driver.quit();
+            }
+
+            started = System.nanoTime();
+            Path profile = ProfileTemplate.newSessionProfile(firefoxOptions);
+
+            try
+            {
+                driver = new FirefoxDriver(ProfileTemplate.apply(firefoxOptions, profile));
+                templateLaunches[i] = millisSince(started);
+
+                try
+                {
+                    started = System.nanoTime();
+                    driver.get(menuUrl);
+                    templateLoads[i] = millisSince(started);
+                }
+                finally
+                {
+                    driver.quit();
+                }
+            }
+            finally
+            {
+                ProfileTemplate.delete(profile);
+            }
+        }
+
+        report("default profile", defaultLaunches, defaultLoads);
+        report("profile template", templateLaunches, templateLoads);
+    }
+}
@@ -0,0 +1,240 @@
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Firefox profile prepared once per run and cloned for every session, instead of letting each
+// session create and initialize a fresh temporary profile. The template has first-run pages,
+// updates, telemetry and safe browsing turned off and the app's static assets in its disk cache.
+//
+// Clones hard link the cache entries and copy everything else. Linked entries are made read-only,
+// so a session that wants to rewrite one fails to open it, drops its own link and fetches the
+// asset again instead of modifying the shared template. Disable with -Dcoffeecart.profileTemplate=false.
+public final class ProfileTemplate
+{
+    private static final boolean enabled = !System.getProperty("coffeecart.profileTemplate", "true").equals("false");
+    private static final List<String> warmUrls = List.of(
+            System.getProperty("coffeecart.profileTemplate.warmUrls",
+                    CoffeeCatalog.get().url("menu") + "," + CoffeeCatalog.get().url("cart")).split(","));
+
+    private static final Map<String, Object> preferences = Map.ofEntries(
+            Map.entry("browser.shell.checkDefaultBrowser", false),
+            Map.entry("browser.startup.homepage_override.mstone", "ignore"),
+            Map.entry("startup.homepage_welcome_url", ""),
+            Map.entry("startup.homepage_welcome_url.additional", ""),
+            Map.entry("browser.aboutwelcome.enabled", false),
+            Map.entry("trailhead.firstrun.didSeeAboutWelcome", true),
+            Map.entry("browser.newtabpage.enabled", false),
+            Map.entry("browser.discovery.enabled", false),
+            Map.entry("datareporting.policy.dataSubmissionEnabled", false),
+            Map.entry("datareporting.healthreport.uploadEnabled", false),
+            Map.entry("toolkit.telemetry.enabled", false),
+            Map.entry("toolkit.telemetry.unified", false),
+            Map.entry("toolkit.telemetry.archive.enabled", false),
+            Map.entry("app.normandy.enabled", false),
+            Map.entry("app.update.auto", false),
+            Map.entry("app.update.checkInstallTime", false),
+            Map.entry("extensions.update.enabled", false),
+            Map.entry("extensions.getAddons.cache.enabled", false),
+            Map.entry("browser.region.update.enabled", false),
+            Map.entry("browser.safebrowsing.malware.enabled", false),
+            Map.entry("browser.safebrowsing.phishing.enabled", false),
+            Map.entry("browser.safebrowsing.downloads.enabled", false),
+            Map.entry("browser.safebrowsing.blockedURIs.enabled", false),
+            Map.entry("browser.safebrowsing.provider.mozilla.updateURL", ""),
+            Map.entry("network.captive-portal-service.enabled", false),
+            Map.entry("network.connectivity-service.enabled", false),
+            Map.entry("browser.cache.disk.enable", true),
+            Map.entry("browser.cache.disk.smart_size.enabled", false),
+            Map.entry("browser.cache.disk.capacity", 262144)
+    );
+
+    private static Path template;
+
+    private ProfileTemplate()
+    {
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public static FirefoxOptions apply(FirefoxOptions options, Path profileDirectory)
+    {
+        return options.merge(new FirefoxOptions().addArguments("-profile", profileDirectory.toString()));
+    }
+
+    // A private, disposable copy of the template for one session
+    public static Path newSessionProfile(FirefoxOptions options)
+    {
+        Path source = template(options);
+
+        try
+        {
+            Path target = Files.createTempDirectory("coffeecart-profile-");
+            cloneTree(source, target);
+
+            return target;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void delete(Path profileDirectory)
+    {
+        try (Stream<Path> paths = Files.walk(profileDirectory))
+        {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList())
+            {
+                Files.deleteIfExists(path);
+            }
+        }
+        catch (IOException e)
+        {
+            // A leftover temporary profile is not worth failing a test over
+        }
+    }
+
+    public static synchronized Path template(FirefoxOptions options)
+    {
+        if (template == null)
+        {
+            template = build(options);
+        }
+
+        return template;
+    }
+
+    private static Path build(FirefoxOptions options)
+    {
+        Path directory = SuiteOutput.directory().resolve("firefox-profile-template");
+
+        try
+        {
+            if (Files.exists(directory))
+            {
+                delete(directory);
+            }
+
+            Files.createDirectories(directory);
+            Files.write(directory.resolve("user.js"), preferences.entrySet().stream()
+                    .map(preference -> "user_pref(\"" + preference.getKey() + "\", " + literal(preference.getValue()) + ");")
+                    .sorted()
+                    .toList());
+
+            warm(options, directory);
+
+            // Session and lock files must not leak into the clones
+            for (String leftover : List.of("lock", ".parentlock", "parent.lock", "sessionstore.jsonlz4", "sessionstore-backups"))
+            {
+                Path path = directory.resolve(leftover);
+
+                if (Files.isDirectory(path))
+                {
+                    delete(path);
+                }
+                else
+                {
+                    Files.deleteIfExists(path);
+                }
+            }
+
+            try (Stream<Path> cacheFiles = Files.walk(directory))
+            {
+                cacheFiles.filter(ProfileTemplate::isCacheEntry)
+                        .forEach(path -> path.toFile().setReadOnly());
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        return directory;
+    }
+
+    // Lets Firefox do its one-off profile initialization and fill the disk cache with the app
+    private static void warm(FirefoxOptions options, Path directory)
+    {
+        WebDriver driver = new FirefoxDriver(apply(options, directory));
+
+        try
+        {
+            for (String url : warmUrls)
+            {
+                driver.get(url);
+            }
+        }
+        catch (RuntimeException e)
+        {
+            System.err.println("Profile template: could not pre-cache the app, continuing with an empty cache: " + e.getMessage());
+        }
+        finally
+        {
+            driver.quit();
+        }
+    }
+
+    private static void cloneTree(Path source, Path target) throws IOException
+    {
+        try (Stream<Path> paths = Files.walk(source))
+        {
+            for (Path path : paths.toList())
+            {
+                Path destination = target.resolve(source.relativize(path).toString());
+
+                if (Files.isDirectory(path))
+                {
+                    Files.createDirectories(destination);
+                }
+                else if (isCacheEntry(path))
+                {
+                    link(path, destination);
+                }
+                else
+                {
+                    Files.copy(path, destination);
+                }
+            }
+        }
+    }
+
+    private static void link(Path path, Path destination) throws IOException
+    {
+        try
+        {
+            Files.createLink(destination, path);
+        }
+        catch (FileAlreadyExistsException e)
+        {
+            throw e;
+        }
+        catch (IOException | UnsupportedOperationException e)
+        {
+            // Different file system or no hard link support
+            Files.copy(path, destination);
+        }
+    }
+
+    private static boolean isCacheEntry(Path path)
+    {
+        return Files.isRegularFile(path) && path.toString().contains("cache2");
+    }
+
+    private static String literal(Object value)
+    {
+        return value instanceof String text ? "\"" + text + "\"" : String.valueOf(value);
+    }
+}
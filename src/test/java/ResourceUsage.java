@@ -0,0 +1,218 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Resources the test running on a thread consumed: peak resident memory and CPU time of the browser and
+// driver processes of its sessions, read from /proc by pid, and the bytes the test thread allocated in
+// this JVM. Resident memory is sampled every 100 ms (-Dcoffeecart.resources.sampleMillis) while the test
+// runs, CPU time counts from the moment the test got its session. Without /proc only allocation is known.
+public final class ResourceUsage
+{
+    private static final boolean procAvailable = Files.isReadable(Path.of("/proc/self/stat"));
+    private static final long sampleMillis = Long.getLong("coffeecart.resources.sampleMillis", 100);
+    // USER_HZ, the unit of utime and stime in /proc/<pid>/stat; 100 on every mainstream Linux
+    private static final long nanosPerClockTick = 1_000_000_000L / Long.getLong("coffeecart.resources.clockTicks", 100);
+    private static final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final ThreadLocal<ResourceUsage> current = ThreadLocal.withInitial(ResourceUsage::new);
+    private static final Set<ResourceUsage> running = ConcurrentHashMap.newKeySet();
+    private static final AtomicLong largestPeakRssBytes = new AtomicLong();
+    private static ScheduledExecutorService sampler;
+
+    private final List<BrowserProcesses> sessions = new CopyOnWriteArrayList<>();
+    private final Map<Long, Long> cpuTicksAtAttach = new ConcurrentHashMap<>();
+    private final Map<Long, Long> cpuTicksLatest = new ConcurrentHashMap<>();
+    private volatile long peakRssBytes;
+    private long allocatedAtBegin;
+
+    private ResourceUsage()
+    {
+    }
+
+    public record Usage(long browserPeakRssBytes, long browserCpuNanos, long allocatedBytes)
+    {
+        public Map<String, Object> toRecord()
+        {
+            Map<String, Object> record = new LinkedHashMap<>();
+
+            if (procAvailable)
+            {
+                record.put("browserPeakRssMb", megabytes(browserPeakRssBytes));
+                record.put("browserCpuMillis", Math.round(browserCpuNanos / 1_000.0) / 1_000.0);
+            }
+
+            record.put("jvmAllocatedMb", megabytes(allocatedBytes));
+
+            return record;
+        }
+    }
+
+    public static ResourceUsage current()
+    {
+        return current.get();
+    }
+
+    public static boolean isProcAvailable()
+    {
+        return procAvailable;
+    }
+
+    // Highest browser peak of any test so far, 0 before the first test finished with a session
+    public static long largestPeakRssBytes()
+    {
+        return largestPeakRssBytes.get();
+    }
+
+    // Memory the running tests are still expected to claim if each grows to the given peak
+    public static long unclaimedBytes(long expectedPeakBytes)
+    {
+        return running.stream()
+                .mapToLong(usage -> Math.max(0, expectedPeakBytes - usage.peakRssBytes))
+                .sum();
+    }
+
+    public void begin()
+    {
+        sessions.clear();
+        cpuTicksAtAttach.clear();
+        cpuTicksLatest.clear();
+        peakRssBytes = 0;
+        allocatedAtBegin = threads.getCurrentThreadAllocatedBytes();
+
+        running.add(this);
+        startSampler();
+    }
+
+    public void attach(BrowserProcesses processes)
+    {
+        sessions.add(processes);
+        sample(true);
+    }
+
+    public Usage finish()
+    {
+        sample(false);
+        running.remove(this);
+
+        long cpuTicks = cpuTicksLatest.entrySet().stream()
+                .mapToLong(entry -> entry.getValue() - cpuTicksAtAttach.getOrDefault(entry.getKey(), 0L))
+                .sum();
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedAtBegin;
+
+        largestPeakRssBytes.accumulateAndGet(peakRssBytes, Math::max);
+        sessions.clear();
+
+        return new Usage(peakRssBytes, cpuTicks * nanosPerClockTick, allocated);
+    }
+
+    // Called before a session quits, its processes are gone by the time the test finishes
+    public void sample()
+    {
+        sample(false);
+    }
+
+    private synchronized void sample(boolean attaching)
+    {
+        if (!procAvailable || sessions.isEmpty())
+        {
+            return;
+        }
+
+        long rssBytes = 0;
+
+        for (BrowserProcesses processes : sessions)
+        {
+            for (ProcessHandle process : processes.all().toList())
+            {
+                long pid = process.pid();
+                long cpuTicks = cpuTicks(pid);
+
+                if (cpuTicks < 0)
+                {
+                    continue;
+                }
+
+                if (attaching)
+                {
+                    cpuTicksAtAttach.putIfAbsent(pid, cpuTicks);
+                }
+
+                cpuTicksLatest.put(pid, cpuTicks);
+                rssBytes += Math.max(0, rssBytes(pid));
+            }
+        }
+
+        peakRssBytes = Math.max(peakRssBytes, rssBytes);
+    }
+
+    private static synchronized void startSampler()
+    {
+        if (sampler != null || !procAvailable)
+        {
+            return;
+        }
+
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "resource-sampler");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(() -> running.forEach(ResourceUsage::sample), sampleMillis, sampleMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // VmRSS from /proc/<pid>/status, -1 when the process is gone
+    static long rssBytes(long pid)
+    {
+        try
+        {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status")))
+            {
+                if (line.startsWith("VmRSS:"))
+                {
+                    return Long.parseLong(line.substring(6).replace("kB", "").trim()) * 1024;
+                }
+            }
+
+            // Zombies have no memory left
+            return 0;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            return -1;
+        }
+    }
+
+    // utime + stime from /proc/<pid>/stat, -1 when the process is gone
+    static long cpuTicks(long pid)
+    {
+        try
+        {
+            String stat = Files.readString(Path.of("/proc", String.valueOf(pid), "stat"));
+            // The command name in parentheses may contain spaces, fields are counted after it
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+
+            return Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            return -1;
+        }
+    }
+
+    static double megabytes(long bytes)
+    {
+        return Math.round(bytes / 1024.0 / 1024.0 * 10) / 10.0;
+    }
+}
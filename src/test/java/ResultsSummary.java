@@ -0,0 +1,150 @@
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+// Usage: java ResultsSummary [results.jsonl ...] [topN]
+// Several files, e.g. one per throttle profile or browser, are summarized together and compared per
+// profile and per browser.
+public class ResultsSummary
+{
+    public static void main(String[] args)
+    {
+        List<Path> files = new ArrayList<>();
+        int topN = 10;
+
+        for (String arg : args)
+        {
+            if (arg.matches("\\d+"))
+            {
+                topN = Integer.parseInt(arg);
+            }
+            else
+            {
+                files.add(Path.of(arg));
+            }
+        }
+
+        if (files.isEmpty())
+        {
+            files.add(SuiteOutput.directory().resolve("test-results.jsonl"));
+        }
+
+        List<Map<String, Object>> records = files.stream()
+                .flatMap(file -> JsonLines.read(file).stream())
+                .filter(record -> record.containsKey("durationMillis"))
+                .toList();
+
+        System.out.printf("%d tests in %s%n%n", records.size(), files);
+
+        System.out.printf("Slowest %d tests:%n", topN);
+        records.stream()
+                .sorted(Comparator.comparingDouble((Map<String, Object> record) -> number(record.get("durationMillis"))).reversed())
+                .limit(topN)
+                .forEach(record -> System.out.printf("  %10.1f ms  %s%n", number(record.get("durationMillis")), name(record)));
+
+        System.out.printf("%nTime per phase:%n");
+        for (TestPhase phase : TestPhase.values())
+        {
+            double total = records.stream()
+                    .mapToDouble(record -> phaseMillis(record, phase))
+                    .sum();
+
+            System.out.printf("  %-14s %12.1f ms%n", phase.key(), total);
+        }
+
+        System.out.printf("%nResources: %.1f s browser CPU, %.1f MB allocated in the JVM, largest browser peak %.1f MB%n",
+                records.stream().mapToDouble(record -> resource(record, "browserCpuMillis")).sum() / 1000,
+                records.stream().mapToDouble(record -> resource(record, "jvmAllocatedMb")).sum(),
+                records.stream().mapToDouble(record -> resource(record, "browserPeakRssMb")).max().orElse(0));
+
+        for (String resource : List.of("browserPeakRssMb", "browserCpuMillis", "jvmAllocatedMb"))
+        {
+            System.out.printf("%nHighest %d tests by %s:%n", topN, resource);
+            records.stream()
+                    .sorted(Comparator.comparingDouble((Map<String, Object> record) -> resource(record, resource)).reversed())
+                    .limit(topN)
+                    .forEach(record -> System.out.printf("  %10.1f  %s%n", resource(record, resource), name(record)));
+        }
+
+        compareBy(records, "profile", "none");
+        compareBy(records, "browser", "firefox");
+
+        for (TestPhase phase : TestPhase.values())
+        {
+            System.out.printf("%nSlowest %d tests in %s:%n", topN, phase.key());
+            records.stream()
+                    .sorted(Comparator.comparingDouble((Map<String, Object> record) -> phaseMillis(record, phase)).reversed())
+                    .limit(topN)
+                    .forEach(record -> System.out.printf("  %10.1f ms  %s%n", phaseMillis(record, phase), name(record)));
+        }
+    }
+
+    // Mean time per test and phase for each value of the field, when the files cover more than one
+    private static void compareBy(List<Map<String, Object>> records, String field, String defaultValue)
+    {
+        Map<String, List<Map<String, Object>>> groups = records.stream()
+                .collect(Collectors.groupingBy(record -> String.valueOf(record.getOrDefault(field, defaultValue)), TreeMap::new, Collectors.toList()));
+
+        if (groups.size() < 2)
+        {
+            return;
+        }
+
+        System.out.printf("%nMean time per test by %s:%n", field);
+        System.out.printf("  %-22s %10s", field, "total");
+        for (TestPhase phase : TestPhase.values())
+        {
+            System.out.printf(" %14s", phase.key());
+        }
+        System.out.println();
+
+        groups.forEach((value, groupRecords) -> {
+            System.out.printf("  %-22s %10.1f", value, mean(groupRecords, record -> number(record.get("durationMillis"))));
+            for (TestPhase phase : TestPhase.values())
+            {
+                System.out.printf(" %14.1f", mean(groupRecords, record -> phaseMillis(record, phase)));
+            }
+            System.out.println();
+        });
+    }
+
+    private static double mean(List<Map<String, Object>> records, ToDoubleFunction<Map<String, Object>> value)
+    {
+        return records.stream().mapToDouble(value).average().orElse(0);
+    }
+
+    private static String name(Map<String, Object> record)
+    {
+        return record.get("class") + "#" + record.get("method") + " " + record.get("displayName");
+    }
+
+    private static double phaseMillis(Map<String, Object> record, TestPhase phase)
+    {
+        if (record.get("phases") instanceof Map<?, ?> phases)
+        {
+            return number(phases.get(phase.key()));
+        }
+
+        return 0;
+    }
+
+    private static double resource(Map<String, Object> record, String name)
+    {
+        if (record.get("resources") instanceof Map<?, ?> resources)
+        {
+            return number(resources.get(name));
+        }
+
+        return 0;
+    }
+
+    private static double number(Object value)
+    {
+        return value instanceof Number number ? number.doubleValue() : 0;
+    }
+}
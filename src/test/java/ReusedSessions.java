@@ -0,0 +1,142 @@
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Sessions handed from test to test instead of being quit after each one. Whenever a session comes back
+// its SessionHealth is checked; a session that wore out (slow, failing, heavy or simply used too often) is
+// quit and replaced by a new one on a background thread, so the tests borrowing sessions never wait for
+// the retirement. Sessions a test broke are quit right away.
+public final class ReusedSessions implements AutoCloseable
+{
+    private static final long maxWaitSeconds = 120;
+
+    private final Capabilities options;
+    private final BlockingQueue<WebDriver> idle = new LinkedBlockingQueue<>();
+    private final ExecutorService recycler = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "session-recycler");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder reuses = new LongAdder();
+    private final LongAdder broken = new LongAdder();
+    private final Map<String, LongAdder> retired = new ConcurrentHashMap<>();
+
+    public ReusedSessions(Capabilities options)
+    {
+        this.options = options;
+    }
+
+    public WebDriver borrow()
+    {
+        WebDriver driver = idle.poll();
+
+        if (driver != null)
+        {
+            // Drivers.create only charges a session's processes to the test that started it
+            reuses.increment();
+            ResourceUsage.current().attach(Drivers.session(driver).processes());
+
+            return driver;
+        }
+
+        started.increment();
+
+        return Drivers.create(options);
+    }
+
+    // intact: false when the test hit a WebDriver error and the session may be broken
+    public void release(WebDriver driver, boolean intact)
+    {
+        DriverSession session = Drivers.session(driver);
+
+        if (!intact || session == null)
+        {
+            broken.increment();
+            Drivers.quit(driver);
+
+            return;
+        }
+
+        SessionHealth health = session.health();
+        health.recordUse(session.rawDriver());
+        String reason = health.retireReason();
+
+        if (reason == null)
+        {
+            idle.add(driver);
+
+            return;
+        }
+
+        System.out.println("Retiring browser session: " + reason + " (" + health + ")");
+        retired.computeIfAbsent(reason.replaceAll("[\\d.]+", "N"), ignored -> new LongAdder()).increment();
+        SuiteMetrics.sessionsRetired.increment();
+
+        recycler.execute(() -> Drivers.quit(driver));
+        recycler.execute(this::replace);
+    }
+
+    private void replace()
+    {
+        Trace.begin("pool", "replace session");
+
+        try
+        {
+            idle.add(Drivers.createDetached(options));
+            started.increment();
+        }
+        catch (RuntimeException e)
+        {
+            // The next borrow starts one inline and reports the real error
+            System.err.println("Replacing a retired session failed: " + e.getMessage());
+        }
+        finally
+        {
+            Trace.end();
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        recycler.shutdown();
+
+        try
+        {
+            recycler.awaitTermination(maxWaitSeconds, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        List<WebDriver> remaining = new ArrayList<>();
+        idle.drainTo(remaining);
+        remaining.forEach(Drivers::quit);
+
+        System.out.println(statistics());
+    }
+
+    public String statistics()
+    {
+        long retiredCount = retired.values().stream().mapToLong(LongAdder::sum).sum();
+        StringBuilder reasons = new StringBuilder();
+        retired.forEach((reason, count) -> reasons.append(reasons.isEmpty() ? " (" : ", ").append(count.sum()).append(" ").append(reason));
+
+        return String.format("Reused sessions: %d started, %d reuses, %d quit after errors, %d retired%s", started.sum(), reuses.sum(),
+                broken.sum(), retiredCount, reasons.isEmpty() ? "" : reasons + ")");
+    }
+}
@@ -0,0 +1,165 @@
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Run with -Dcoffeecart.benchmarks=true. Writes target/scaling-benchmark.csv.
+@EnabledIfSystemProperty(named = "coffeecart.benchmarks", matches = "true")
+public class ScalingBenchmarkTest
+{
+    private static final int repeats = 5;
+
+    private static Capabilities browserOptions;
+    private static CoffeeCartStandIn standIn;
+    private static ScalingCurve curve;
+    private WebDriver webDriver;
+    private WebDriverWait wait;
+
+    @BeforeAll
+    public static void setupClass()
+    {
+        Browser.current().setupDriver();
+
+        browserOptions = Drivers.defaultOptions();
+
+        standIn = new CoffeeCartStandIn();
+        curve = new ScalingCurve();
+    }
+
+    @AfterAll
+    public static void teardownClass()
+    {
+        standIn.close();
+
+        curve.report().forEach(System.out::println);
+        curve.writeCsv(SuiteOutput.directory().resolve("scaling-benchmark.csv"));
+    }
+
+    @BeforeEach
+    public void setup()
+    {
+        webDriver = Drivers.create(browserOptions);
+        wait = new TimedWait(webDriver, Duration.ofSeconds(60));
+    }
+
+    @AfterEach
+    public void teardown()
+    {
+        Drivers.quit(webDriver);
+    }
+
+    private Number stat(String name)
+    {
+        return (Number) ((JavascriptExecutor) webDriver).executeScript("return window.__stats." + name + ";");
+    }
+
+    private int countElements(String cssSelector)
+    {
+        return ((Number) ((JavascriptExecutor) webDriver)
+                .executeScript("return document.querySelectorAll(arguments[0]).length;", cssSelector)).intValue();
+    }
+
+    private static double median(double[] samples)
+    {
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+
+        return sorted[sorted.length / 2];
+    }
+
+    private static double millisSince(long startNanos)
+    {
+        return (System.nanoTime() - startNanos) / 1_000_000.0;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 1_000, 10_000})
+    public void benchmarkMenuRender(int items)
+    {
+        double[] loads = new double[repeats];
+        double[] renders = new double[repeats];
+
+        for (int i = 0; i < repeats; ++i)
+        {
+            long started = System.nanoTime();
+            webDriver.get(standIn.menuUrl(items, 0));
+            wait.until(driver -> countElements("li[data-v-a9662a08]") == items);
+
+            loads[i] = millisSince(started);
+            renders[i] = stat("lastRenderMillis").doubleValue();
+        }
+
+        curve.add("menu page load", items, median(loads));
+        curve.add("menu render (in page)", items, median(renders));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 1_000, 10_000})
+    public void benchmarkClickToPayButtonUpdate(int items)
+    {
+        // A full cart makes every click pay for sorting the preview and summing the total
+        webDriver.get(standIn.menuUrl(items, items));
+        wait.until(driver -> countElements("li[data-v-a9662a08]") == items);
+
+        double[] latencies = new double[repeats];
+        double[] updates = new double[repeats];
+
+        for (int i = 0; i < repeats; ++i)
+        {
+            String totalBefore = webDriver.findElement(By.cssSelector("button.pay")).getText();
+            WebElement cup = webDriver.findElements(By.cssSelector("div.cup")).get(i);
+
+            long started = System.nanoTime();
+            cup.click();
+            wait.until(driver -> !driver.findElement(By.cssSelector("button.pay")).getText().equals(totalBefore));
+
+            latencies[i] = millisSince(started);
+            updates[i] = stat("lastUpdateMillis").doubleValue();
+        }
+
+        curve.add("click to pay update", items, median(latencies));
+        curve.add("cart update (in page)", items, median(updates));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 1_000, 10_000})
+    public void benchmarkCartPageLoad(int items)
+    {
+        double[] loads = new double[repeats];
+
+        for (int i = 0; i < repeats; ++i)
+        {
+            long started = System.nanoTime();
+            webDriver.get(standIn.cartUrl(items, items));
+            wait.until(driver -> countElements("li.list-item") == items);
+
+            loads[i] = millisSince(started);
+        }
+
+        curve.add("cart page load", items, median(loads));
+
+        List<String> names = webDriver.findElements(By.cssSelector("li.list-item > div:first-child")).stream()
+                .limit(50)
+                .map(WebElement::getText)
+                .toList();
+
+        assertEquals(items, countElements("li.list-item"));
+        assertTrue(names.stream().sorted().toList().equals(names), "cart must stay sorted at " + items + " items");
+    }
+}
@@ -0,0 +1,75 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Collects (size, millis) points per metric and reports the log-log slope between consecutive sizes:
+// ~1 means linear scaling, clearly above 1 means the cost grows faster than the input.
+public class ScalingCurve
+{
+    private static final double superLinearExponent = 1.2;
+
+    private final Map<String, Map<Integer, Double>> points = new TreeMap<>();
+
+    public synchronized void add(String metric, int size, double millis)
+    {
+        points.computeIfAbsent(metric, key -> new TreeMap<>()).put(size, millis);
+    }
+
+    public synchronized List<String> report()
+    {
+        List<String> lines = new ArrayList<>();
+
+        points.forEach((metric, curve) -> {
+            Integer previousSize = null;
+
+            for (Map.Entry<Integer, Double> point : curve.entrySet())
+            {
+                String line = String.format("%-24s %8d items %10.1f ms", metric, point.getKey(), point.getValue());
+
+                if (previousSize != null)
+                {
+                    double exponent = exponent(previousSize, curve.get(previousSize), point.getKey(), point.getValue());
+                    line += String.format("   exponent %5.2f%s", exponent, exponent > superLinearExponent ? "  SUPER-LINEAR" : "");
+                }
+
+                lines.add(line);
+                previousSize = point.getKey();
+            }
+        });
+
+        return lines;
+    }
+
+    public synchronized void writeCsv(Path file)
+    {
+        List<String> lines = new ArrayList<>();
+        lines.add("metric,items,millis");
+
+        points.forEach((metric, curve) -> curve.forEach((size, millis) ->
+                lines.add(metric + "," + size + "," + String.format(Locale.ROOT, "%.3f", millis))));
+
+        try
+        {
+            Files.write(file, lines);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static double exponent(int sizeA, double millisA, int sizeB, double millisB)
+    {
+        // Sub-millisecond timings are noise, clamp them so the slope stays meaningful
+        double a = Math.max(millisA, 0.1);
+        double b = Math.max(millisB, 0.1);
+
+        return Math.log(b / a) / Math.log((double) sizeB / sizeA);
+    }
+}
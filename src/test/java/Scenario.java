@@ -0,0 +1,73 @@
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// One cart scenario: steps taken on the menu page and the total the pay button shows afterwards.
+public record Scenario(String name, List<Step> steps, BigDecimal expectedTotal)
+{
+    public enum Action
+    {
+        ADD("add"),
+        REMOVE("remove"),
+        PROMO_ACCEPT("promo accept"),
+        PROMO_SKIP("promo skip");
+
+        private final String key;
+
+        Action(String key)
+        {
+            this.key = key;
+        }
+
+        public String key()
+        {
+            return key;
+        }
+    }
+
+    // "add Espresso", "remove (Discounted) Mocha", "promo accept", "promo skip"
+    public record Step(Action action, String coffee)
+    {
+        public static Step parse(String text)
+        {
+            String step = text.trim();
+
+            if (step.equals(Action.PROMO_ACCEPT.key()))
+            {
+                return new Step(Action.PROMO_ACCEPT, null);
+            }
+
+            if (step.equals(Action.PROMO_SKIP.key()))
+            {
+                return new Step(Action.PROMO_SKIP, null);
+            }
+
+            for (Action action : List.of(Action.ADD, Action.REMOVE))
+            {
+                if (step.startsWith(action.key() + " "))
+                {
+                    return new Step(action, step.substring(action.key().length() + 1).trim());
+                }
+            }
+
+            throw new IllegalArgumentException("Unknown scenario step '" + text + "'");
+        }
+
+        @Override
+        public String toString()
+        {
+            return coffee == null ? action.key() : action.key() + " " + coffee;
+        }
+    }
+
+    public Scenario
+    {
+        steps = List.copyOf(steps);
+    }
+
+    // Identifies the first n steps, scenarios with the same key reach the same state
+    public String prefixKey(int n)
+    {
+        return steps.subList(0, n).stream().map(Step::toString).collect(Collectors.joining(";"));
+    }
+}
@@ -0,0 +1,173 @@
+import org.junit.jupiter.api.DynamicTest;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Actions;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Runs cart scenarios as dynamic tests. Sessions are reused from one scenario to the next: each
+// scenario reloads the menu page, which empties the cart, so only as many browsers start as scenarios
+// run at the same time, and ReusedSessions replaces the ones that wear out. A scenario whose leading
+// steps an earlier passing scenario already took starts from the state after them, seeded through
+// AppState where the app allows it, and only takes the remaining steps in the browser. Up to 10000
+// prefixes (-Dcoffeecart.scenarios.prefixes) are kept, the least recently used are dropped first.
+public final class ScenarioEngine implements AutoCloseable
+{
+    private static final int maxPrefixes = Integer.getInteger("coffeecart.scenarios.prefixes", 10_000);
+    private static final CoffeeCatalog catalog = CoffeeCatalog.get();
+
+    private final String menuUrl;
+    private final ReusedSessions sessions;
+    private final Set<String> passedPrefixes = Collections.newSetFromMap(Collections.synchronizedMap(
+            new LinkedHashMap<>(1024, 0.75f, true)
+            {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest)
+                {
+                    return size() > maxPrefixes;
+                }
+            }));
+
+    private final LongAdder scenarios = new LongAdder();
+    private final LongAdder executedSteps = new LongAdder();
+    private final LongAdder seededSteps = new LongAdder();
+    private volatile Boolean seedable;
+
+    public ScenarioEngine(String menuUrl, Capabilities options)
+    {
+        this.menuUrl = menuUrl;
+        this.sessions = new ReusedSessions(options);
+    }
+
+    // Lazily, JUnit pulls the next scenario from the stream when it gets to it
+    public Stream<DynamicTest> tests(Stream<Scenario> scenarios)
+    {
+        return scenarios.map(scenario -> DynamicTest.dynamicTest(scenario.name(), () -> run(scenario)));
+    }
+
+    public void run(Scenario scenario)
+    {
+        List<Scenario.Step> steps = scenario.steps();
+        WebDriver driver = sessions.borrow();
+        boolean reusable = true;
+
+        try
+        {
+            driver.get(menuUrl);
+
+            if (seedable == null)
+            {
+                seedable = AppState.isSeedable(driver);
+            }
+
+            int start = seedable ? seededLength(scenario) : 0;
+
+            if (start > 0)
+            {
+                AppState.seed(driver, CartModel.after(steps.subList(0, start)));
+                seededSteps.add(start);
+            }
+
+            for (Scenario.Step step : steps.subList(start, steps.size()))
+            {
+                perform(driver, step);
+            }
+
+            executedSteps.add(steps.size() - start);
+
+            assertEquals(0, scenario.expectedTotal().compareTo(payTotal(driver)),
+                    () -> "Total after " + steps + ": expected " + scenario.expectedTotal() + " but was " + payTotal(driver));
+
+            for (int n = 1; n <= steps.size(); n++)
+            {
+                passedPrefixes.add(scenario.prefixKey(n));
+            }
+        }
+        catch (WebDriverException e)
+        {
+            // The session may be broken, it is not handed to the next scenario
+            reusable = false;
+            throw e;
+        }
+        finally
+        {
+            scenarios.increment();
+            sessions.release(driver, reusable);
+        }
+    }
+
+    // Longest proper prefix an earlier scenario passed with, not ending on an offered promo, which
+    // AppState cannot recreate
+    private int seededLength(Scenario scenario)
+    {
+        List<Scenario.Step> steps = scenario.steps();
+        CartModel model = new CartModel();
+        int longest = 0;
+
+        for (int n = 1; n < steps.size(); n++)
+        {
+            model.apply(steps.get(n - 1));
+
+            if (!model.isPromoVisible() && passedPrefixes.contains(scenario.prefixKey(n)))
+            {
+                longest = n;
+            }
+        }
+
+        return longest;
+    }
+
+    private static void perform(WebDriver driver, Scenario.Step step)
+    {
+        switch (step.action())
+        {
+            case ADD -> driver.findElements(By.cssSelector("li[data-v-a9662a08]"))
+                    .get(catalog.byName(step.coffee()).position())
+                    .findElement(By.cssSelector("div div.cup"))
+                    .click();
+            case REMOVE ->
+            {
+                // The cart preview only shows while hovering the pay button
+                new Actions(driver).moveToElement(driver.findElement(By.cssSelector("button.pay"))).perform();
+
+                WebElement entry = driver.findElements(By.cssSelector("ul.cart-preview li")).stream()
+                        .filter(item -> item.findElement(By.tagName("span")).getText().equals(step.coffee()))
+                        .findFirst()
+                        .orElseThrow(() -> new AssertionError(step.coffee() + " is not in the cart preview"));
+
+                entry.findElements(By.cssSelector("div.unit-controller button")).get(1).click();
+            }
+            case PROMO_ACCEPT -> driver.findElement(By.cssSelector(".promo div.buttons button.yes")).click();
+            case PROMO_SKIP -> driver.findElements(By.cssSelector(".promo div.buttons button")).get(1).click();
+        }
+    }
+
+    private static BigDecimal payTotal(WebDriver driver)
+    {
+        return PriceParsing.price(driver.findElement(By.cssSelector("button.pay")).getText());
+    }
+
+    @Override
+    public void close()
+    {
+        long executed = executedSteps.sum();
+        long seeded = seededSteps.sum();
+
+        System.out.printf("ScenarioEngine: %d scenarios, %d steps taken in the browser, %d seeded (%.0f%%)%n",
+                scenarios.sum(), executed, seeded, executed + seeded == 0 ? 0 : 100.0 * seeded / (executed + seeded));
+
+        sessions.close();
+    }
+}
@@ -0,0 +1,171 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// Usage: java ScenarioFiles <out.jsonl|out.csv> <count> [seed]
+// Generates random cart scenarios with their expected totals. The rest of the class streams scenario
+// files line by line, so files of any size are read in constant memory:
+//   CSV    name,steps,expectedTotal with the steps separated by ';', an optional header line
+//   JSONL  {"name": ..., "steps": ["add Espresso", ...], "expectedTotal": "18.00"}
+// Blank lines and lines starting with # are skipped.
+public final class ScenarioFiles
+{
+    private static final String csvHeader = "name,steps,expectedTotal";
+
+    private ScenarioFiles()
+    {
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        Path file = Path.of(args[0]);
+        int count = Integer.parseInt(args[1]);
+        Random random = new Random(args.length > 2 ? Long.parseLong(args[2]) : 42);
+        boolean csv = file.toString().endsWith(".csv");
+
+        try (var writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8))
+        {
+            if (csv)
+            {
+                writer.write(csvHeader);
+                writer.newLine();
+            }
+
+            for (int i = 0; i < count; i++)
+            {
+                Scenario scenario = random(random, "generated-" + i);
+                writer.write(csv ? toCsv(scenario) : toJson(scenario));
+                writer.newLine();
+            }
+        }
+
+        System.out.printf("%d scenarios written to %s%n", count, file);
+    }
+
+    // Stream must be closed, e.g. by JUnit for a @TestFactory or with try-with-resources
+    public static Stream<Scenario> stream(Path file)
+    {
+        try
+        {
+            return stream(file.getFileName().toString(), Files.newInputStream(file));
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Stream<Scenario> stream(String name, InputStream input)
+    {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        boolean json = name.endsWith(".jsonl");
+
+        return reader.lines()
+                .filter(line -> !line.isBlank() && !line.startsWith("#") && !line.equals(csvHeader))
+                .map(line -> json ? parseJson(line) : parseCsv(line))
+                .onClose(() -> {
+                    try
+                    {
+                        reader.close();
+                    }
+                    catch (IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    static Scenario parseCsv(String line)
+    {
+        String[] fields = line.split(",", -1);
+
+        if (fields.length != 3)
+        {
+            throw new IllegalArgumentException("Expected " + csvHeader + ": " + line);
+        }
+
+        List<Scenario.Step> steps = Stream.of(fields[1].split(";"))
+                .filter(step -> !step.isBlank())
+                .map(Scenario.Step::parse)
+                .toList();
+
+        return new Scenario(fields[0].trim(), steps, new BigDecimal(fields[2].trim()));
+    }
+
+    static Scenario parseJson(String line)
+    {
+        Map<String, Object> record = JsonLines.parse(line);
+        List<Scenario.Step> steps = ((List<?>) record.get("steps")).stream()
+                .map(step -> Scenario.Step.parse(String.valueOf(step)))
+                .toList();
+
+        return new Scenario(String.valueOf(record.get("name")), steps, new BigDecimal(String.valueOf(record.get("expectedTotal"))));
+    }
+
+    static String toCsv(Scenario scenario)
+    {
+        List<String> steps = scenario.steps().stream().map(Scenario.Step::toString).toList();
+
+        return scenario.name() + "," + String.join(";", steps) + "," + scenario.expectedTotal().toPlainString();
+    }
+
+    static String toJson(Scenario scenario)
+    {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("name", scenario.name());
+        record.put("steps", scenario.steps().stream().map(Scenario.Step::toString).toList());
+        record.put("expectedTotal", scenario.expectedTotal().toPlainString());
+
+        return JsonLines.toJson(record).replace("\n", "");
+    }
+
+    // A valid sequence of 1 to 12 steps, most scenarios start with one of a few common openings
+    private static Scenario random(Random random, String name)
+    {
+        CoffeeCatalog catalog = CoffeeCatalog.get();
+        List<String> openings = List.of("Espresso", "Cappuccino", "Mocha");
+        List<Scenario.Step> steps = new ArrayList<>();
+        CartModel model = new CartModel();
+
+        steps.add(new Scenario.Step(Scenario.Action.ADD, openings.get(random.nextInt(openings.size()))));
+        model.apply(steps.getFirst());
+
+        int length = 1 + random.nextInt(12);
+
+        while (steps.size() < length)
+        {
+            Scenario.Step step;
+
+            if (model.isPromoVisible())
+            {
+                step = new Scenario.Step(random.nextBoolean() ? Scenario.Action.PROMO_ACCEPT : Scenario.Action.PROMO_SKIP, null);
+            }
+            else if (!model.entries().isEmpty() && random.nextInt(4) == 0)
+            {
+                List<CartModel.Entry> entries = model.entries();
+                step = new Scenario.Step(Scenario.Action.REMOVE, entries.get(random.nextInt(entries.size())).name());
+            }
+            else
+            {
+                step = new Scenario.Step(Scenario.Action.ADD, catalog.get(random.nextInt(catalog.size())).name());
+            }
+
+            model.apply(step);
+            steps.add(step);
+        }
+
+        return new Scenario(name, steps, model.total());
+    }
+}
@@ -0,0 +1,63 @@
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Cart scenarios from src/test/resources/scenarios, or the files in -Dcoffeecart.scenarios (comma
+// separated), against the app at -Dcoffeecart.baseUrl, see ScenarioEngine. -Dcoffeecart.scenarios.standIn=true
+// runs them against a CoffeeCartStandIn instead, which also lets the engine seed carts directly.
+@Tag("browser")
+@ExtendWith(InfrastructureBreaker.class)
+public class ScenarioTest
+{
+    private static final List<String> bundledScenarios = List.of("/scenarios/cart-scenarios.csv", "/scenarios/cart-scenarios.jsonl");
+    private static final boolean useStandIn = Boolean.getBoolean("coffeecart.scenarios.standIn");
+
+    private static CoffeeCartStandIn standIn;
+    private static ScenarioEngine engine;
+
+    @BeforeAll
+    public static void setupClass()
+    {
+        Browser.current().setupDriver();
+
+        if (useStandIn)
+        {
+            standIn = new CoffeeCartStandIn();
+        }
+
+        engine = new ScenarioEngine(useStandIn ? standIn.baseUrl() : CoffeeCatalog.get().url("menu"), Drivers.defaultOptions());
+    }
+
+    @AfterAll
+    public static void teardownClass()
+    {
+        if (engine != null)
+        {
+            engine.close();
+        }
+
+        if (standIn != null)
+        {
+            standIn.close();
+        }
+    }
+
+    @TestFactory
+    public Stream<DynamicTest> cartScenarios()
+    {
+        String files = System.getProperty("coffeecart.scenarios");
+        Stream<Scenario> scenarios = files != null
+                ? Stream.of(files.split(",")).flatMap(file -> ScenarioFiles.stream(Path.of(file.trim())))
+                : bundledScenarios.stream().flatMap(resource ->
+                        ScenarioFiles.stream(resource, ScenarioTest.class.getResourceAsStream(resource)));
+
+        return engine.tests(scenarios);
+    }
+}
@@ -0,0 +1,226 @@
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Health of one browser session while it is reused, attached to the session as a listener by Drivers:
+//   - latency drift: each command is compared with the median of the first calls of the same command in
+//     this session; the drift is the 75th percentile of the last 20 ratios, so a single slow call (a GC
+//     pause, a slow page load) does not count, only a slowdown of a good part of the recent commands
+//   - command error rate, not counting elements that are missing or stale, which waits expect
+//   - JS heap (Chromium only) and DOM node count, sampled between uses
+//   - number of uses
+// retireReason says why the session should be replaced, null while it is healthy. Limits come from
+// -Dcoffeecart.health.maxUses (50), maxLatencyDrift (2.0), maxErrorRate (0.1), maxHeapMegabytes (512)
+// and maxDomNodes (20000).
+public final class SessionHealth implements WebDriverListener
+{
+    private static final int baselineSamples = 5;
+    private static final int driftWindow = 20;
+    private static final int minDriftSamples = 10;
+    private static final int minCommandsForErrorRate = 20;
+
+    private static final String probeScript = """
+            return [performance.memory ? performance.memory.usedJSHeapSize : -1,
+                    document.getElementsByTagName('*').length];
+            """;
+
+    private final Limits limits;
+    private final Map<String, long[]> baselineNanos = new HashMap<>();
+    private final Map<String, Double> baselines = new HashMap<>();
+    private final double[] recentRatios = new double[driftWindow];
+    private long ratios;
+    private int depth;
+    private long callStarted;
+    private String callName;
+    private long commands;
+    private long errors;
+    private int uses;
+    private long heapBytes = -1;
+    private long domNodes = -1;
+
+    public record Limits(int maxUses, double maxLatencyDrift, double maxErrorRate, long maxHeapBytes, long maxDomNodes)
+    {
+        public static Limits fromProperties()
+        {
+            return new Limits(Integer.getInteger("coffeecart.health.maxUses", 50),
+                    Double.parseDouble(System.getProperty("coffeecart.health.maxLatencyDrift", "2.0")),
+                    Double.parseDouble(System.getProperty("coffeecart.health.maxErrorRate", "0.1")),
+                    Long.getLong("coffeecart.health.maxHeapMegabytes", 512) * 1024 * 1024,
+                    Long.getLong("coffeecart.health.maxDomNodes", 20_000));
+        }
+    }
+
+    public SessionHealth()
+    {
+        this(Limits.fromProperties());
+    }
+
+    public SessionHealth(Limits limits)
+    {
+        this.limits = limits;
+    }
+
+    // Only the outermost call is timed, element calls made inside a driver call are part of it
+    @Override
+    public synchronized void beforeAnyCall(Object target, Method method, Object[] args)
+    {
+        if (depth++ == 0)
+        {
+            callStarted = System.nanoTime();
+            callName = method.getName();
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result)
+    {
+        finish(false);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e)
+    {
+        Throwable cause = e.getCause();
+
+        finish(!(cause instanceof NotFoundException) && !(cause instanceof StaleElementReferenceException));
+    }
+
+    private synchronized void finish(boolean failed)
+    {
+        if (depth == 0 || --depth > 0)
+        {
+            return;
+        }
+
+        recordCommand(callName, System.nanoTime() - callStarted, failed);
+    }
+
+    synchronized void recordCommand(String name, long nanos, boolean failed)
+    {
+        commands++;
+
+        if (failed)
+        {
+            errors++;
+            return;
+        }
+
+        Double baseline = baselines.get(name);
+
+        if (baseline == null)
+        {
+            // count, then the first samples
+            long[] samples = baselineNanos.computeIfAbsent(name, ignored -> new long[1 + baselineSamples]);
+            samples[(int) ++samples[0]] = nanos;
+
+            if (samples[0] == baselineSamples)
+            {
+                long[] sorted = Arrays.copyOfRange(samples, 1, samples.length);
+                Arrays.sort(sorted);
+                baselines.put(name, Math.max(1.0, sorted[baselineSamples / 2]));
+                baselineNanos.remove(name);
+            }
+
+            return;
+        }
+
+        recentRatios[(int) (ratios++ % driftWindow)] = nanos / baseline;
+    }
+
+    // Called when a test is done with the session; samples the page it left behind
+    public void recordUse(WebDriver rawDriver)
+    {
+        synchronized (this)
+        {
+            uses++;
+        }
+
+        try
+        {
+            List<?> values = (List<?>) ((JavascriptExecutor) rawDriver).executeScript(probeScript);
+
+            recordPage(((Number) values.get(0)).longValue(), ((Number) values.get(1)).longValue());
+        }
+        catch (WebDriverException | ClassCastException | NullPointerException e)
+        {
+            // No page or no script support, the other signals still count
+        }
+    }
+
+    synchronized void recordPage(long heapBytes, long domNodes)
+    {
+        this.heapBytes = heapBytes;
+        this.domNodes = domNodes;
+    }
+
+    public synchronized String retireReason()
+    {
+        if (uses >= limits.maxUses())
+        {
+            return "reused " + uses + " times";
+        }
+
+        if (latencyDrift() > limits.maxLatencyDrift())
+        {
+            return String.format("commands %.1fx slower than at the start", latencyDrift());
+        }
+
+        if (commands >= minCommandsForErrorRate && errorRate() > limits.maxErrorRate())
+        {
+            return String.format("%.0f%% of commands failed", errorRate() * 100);
+        }
+
+        if (heapBytes > limits.maxHeapBytes())
+        {
+            return "JS heap at " + heapBytes / (1024 * 1024) + " MB";
+        }
+
+        if (domNodes > limits.maxDomNodes())
+        {
+            return domNodes + " DOM nodes";
+        }
+
+        return null;
+    }
+
+    public synchronized double errorRate()
+    {
+        return commands == 0 ? 0 : (double) errors / commands;
+    }
+
+    // 1 until enough commands ran after their baselines
+    public synchronized double latencyDrift()
+    {
+        if (ratios < minDriftSamples)
+        {
+            return 1;
+        }
+
+        double[] recent = Arrays.copyOf(recentRatios, (int) Math.min(ratios, driftWindow));
+        Arrays.sort(recent);
+
+        return recent[(int) Math.ceil(recent.length * 0.75) - 1];
+    }
+
+    public synchronized int uses()
+    {
+        return uses;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return String.format("%d uses, %d commands, %.1f%% errors, latency drift %.2f, heap %s, %d DOM nodes", uses, commands,
+                errorRate() * 100, latencyDrift(), heapBytes < 0 ? "n/a" : heapBytes / (1024 * 1024) + " MB", domNodes);
+    }
+}
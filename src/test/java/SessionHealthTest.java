@@ -0,0 +1,90 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SessionHealthTest
+{
+    private static final SessionHealth.Limits limits = new SessionHealth.Limits(3, 2.0, 0.1, 100L * 1024 * 1024, 5_000);
+
+    @Test
+    public void testSteadySessionStaysInPool()
+    {
+        SessionHealth health = new SessionHealth(limits);
+
+        for (int i = 0; i < 100; i++)
+        {
+            health.recordCommand("click", 10_000_000, false);
+            health.recordCommand("get", 50_000_000, false);
+        }
+
+        health.recordPage(20L * 1024 * 1024, 300);
+
+        assertNull(health.retireReason());
+    }
+
+    @Test
+    public void testSlowerCommandsRetireSession()
+    {
+        SessionHealth health = new SessionHealth(limits);
+
+        for (int i = 0; i < 5; i++)
+        {
+            health.recordCommand("click", 10_000_000, false);
+        }
+
+        for (int i = 0; i < 50; i++)
+        {
+            health.recordCommand("click", 40_000_000, false);
+        }
+
+        assertTrue(health.latencyDrift() > 2.0);
+        assertTrue(health.retireReason().contains("slower"), health.retireReason());
+    }
+
+    @Test
+    public void testSingleSlowCommandDoesNotRetireSession()
+    {
+        SessionHealth health = new SessionHealth(limits);
+
+        for (int i = 0; i < 5; i++)
+        {
+            health.recordCommand("get", 1_000_000, false);
+        }
+
+        health.recordCommand("get", 30_000_000, false);
+
+        for (int i = 0; i < 30; i++)
+        {
+            health.recordCommand("get", 1_000_000, false);
+
+            assertNull(health.retireReason(), health::toString);
+        }
+
+        health.recordCommand("get", 30_000_000, false);
+
+        assertNull(health.retireReason(), health::toString);
+    }
+
+    @Test
+    public void testErrorsHeapAndDomNodesRetireSession()
+    {
+        SessionHealth failing = new SessionHealth(limits);
+
+        for (int i = 0; i < 30; i++)
+        {
+            failing.recordCommand("click", 10_000_000, i % 5 == 0);
+        }
+
+        assertTrue(failing.retireReason().contains("failed"), failing.retireReason());
+
+        SessionHealth heavy = new SessionHealth(limits);
+        heavy.recordPage(200L * 1024 * 1024, 300);
+
+        assertTrue(heavy.retireReason().contains("heap"), heavy.retireReason());
+
+        heavy.recordPage(-1, 8_000);
+
+        assertTrue(heavy.retireReason().contains("DOM"), heavy.retireReason());
+    }
+}
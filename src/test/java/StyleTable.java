@@ -0,0 +1,56 @@
+import java.util.List;
+
+// Computed styles of several elements, one row per element in the order they were requested
+public final class StyleTable
+{
+    private final List<String> properties;
+    private final List<List<String>> rows;
+
+    StyleTable(List<String> properties, List<List<String>> rows)
+    {
+        this.properties = List.copyOf(properties);
+        this.rows = rows.stream().map(List::copyOf).toList();
+    }
+
+    public int size()
+    {
+        return rows.size();
+    }
+
+    List<String> row(int element)
+    {
+        return rows.get(element);
+    }
+
+    public String raw(int element, String property)
+    {
+        int column = properties.indexOf(property);
+
+        if (column == -1)
+        {
+            throw new IllegalArgumentException(property + " was not read, available: " + properties);
+        }
+
+        return rows.get(element).get(column);
+    }
+
+    public CssColor color(int element, String property)
+    {
+        return CssColor.parse(raw(element, property));
+    }
+
+    public CssColor color(int element)
+    {
+        return color(element, "color");
+    }
+
+    public CssTransform transform(int element)
+    {
+        return CssTransform.parse(raw(element, "transform"));
+    }
+
+    public boolean isVisible(int element)
+    {
+        return raw(element, "visibility").equals("visible");
+    }
+}
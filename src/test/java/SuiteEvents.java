@@ -0,0 +1,74 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Flight Recorder events emitted by the suite. They are only committed while a recording with these
+// events enabled is running, see FlightRecording.
+public final class SuiteEvents
+{
+    private SuiteEvents()
+    {
+    }
+
+    @Category({"Coffee Cart", "Tests"})
+    @StackTrace(false)
+    abstract static class TestEvent extends Event
+    {
+        @Label("Test Class")
+        String testClass;
+
+        @Label("Test Method")
+        String testMethod;
+
+        void setTest(CurrentTest test)
+        {
+            testClass = test.className();
+            testMethod = test.methodName();
+        }
+    }
+
+    @Name("coffeecart.DriverCreation")
+    @Label("Driver Creation")
+    @Description("Browser and driver process start until the session is usable")
+    static final class DriverCreation extends TestEvent
+    {
+        @Label("Browser")
+        String browser;
+    }
+
+    @Name("coffeecart.Navigation")
+    @Label("Navigation")
+    static final class Navigation extends TestEvent
+    {
+        @Label("Command")
+        String command;
+
+        @Label("URL")
+        String url;
+    }
+
+    @Name("coffeecart.WebDriverCommand")
+    @Label("WebDriver Command")
+    static final class WebDriverCommand extends TestEvent
+    {
+        @Label("Command")
+        String command;
+
+        @Label("Failed")
+        boolean failed;
+    }
+
+    @Name("coffeecart.Wait")
+    @Label("Wait")
+    static final class Wait extends TestEvent
+    {
+        @Label("Condition")
+        String condition;
+
+        @Label("Satisfied")
+        boolean satisfied;
+    }
+}
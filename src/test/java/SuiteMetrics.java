@@ -0,0 +1,293 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Live counters, gauges and histograms of the run in the Prometheus text format. Updates are LongAdder
+// increments, so worker threads never contend on them. -Dcoffeecart.metrics.port serves them on
+// http://127.0.0.1:<port>/metrics while the run lasts (0 picks a free port), and the final values are
+// written to target/metrics.prom (-Dcoffeecart.metrics.file) at the end of every run.
+public final class SuiteMetrics
+{
+    private static final List<Metric> metrics = new CopyOnWriteArrayList<>();
+
+    public static final Counter testsStarted = counter("coffeecart_tests_started_total", "Tests started");
+    public static final LabeledCounter testsFinished = labeledCounter("coffeecart_tests_finished_total", "Tests finished", "status");
+    public static final Histogram testDuration = histogram("coffeecart_test_duration_seconds", "Test wall time",
+            0.5, 1, 2, 5, 10, 20, 30, 60, 120);
+    public static final Counter commands = counter("coffeecart_webdriver_commands_total", "WebDriver commands issued by tests");
+    public static final Counter commandErrors = counter("coffeecart_webdriver_command_errors_total", "WebDriver commands that threw");
+    public static final Histogram commandDuration = histogram("coffeecart_webdriver_command_seconds", "WebDriver command latency",
+            0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5);
+    public static final Histogram waitDuration = histogram("coffeecart_wait_seconds", "Time until a wait condition was satisfied or timed out",
+            0.01, 0.05, 0.1, 0.25, 0.5, 1, 2, 5, 10);
+    public static final Counter waitTimeouts = counter("coffeecart_wait_timeouts_total", "Waits that timed out");
+    public static final Counter sessionsRetired = counter("coffeecart_sessions_retired_total", "Reused sessions replaced because their health degraded");
+
+    static
+    {
+        gauge("coffeecart_tests_running", "Tests currently running", () -> testsStarted.value() - testsFinished.total());
+        gauge("coffeecart_sessions_active", "Browser sessions handed to tests and not yet quit", Drivers::activeSessions);
+        gauge("coffeecart_pool_ready_sessions", "Pre-warmed sessions waiting in the pool", () -> WarmSessionPool.get().readySessions());
+    }
+
+    private static HttpServer server;
+
+    private SuiteMetrics()
+    {
+    }
+
+    private interface Metric
+    {
+        void write(StringBuilder out);
+    }
+
+    public static final class Counter implements Metric
+    {
+        private final String name;
+        private final String help;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String name, String help)
+        {
+            this.name = name;
+            this.help = help;
+        }
+
+        public void increment()
+        {
+            value.increment();
+        }
+
+        public long value()
+        {
+            return value.sum();
+        }
+
+        @Override
+        public void write(StringBuilder out)
+        {
+            header(out, name, help, "counter");
+            out.append(name).append(' ').append(value.sum()).append('\n');
+        }
+    }
+
+    public static final class LabeledCounter implements Metric
+    {
+        private final String name;
+        private final String help;
+        private final String label;
+        private final Map<String, LongAdder> values = new ConcurrentHashMap<>();
+
+        private LabeledCounter(String name, String help, String label)
+        {
+            this.name = name;
+            this.help = help;
+            this.label = label;
+        }
+
+        public void increment(String labelValue)
+        {
+            values.computeIfAbsent(labelValue, key -> new LongAdder()).increment();
+        }
+
+        public long total()
+        {
+            return values.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        @Override
+        public void write(StringBuilder out)
+        {
+            header(out, name, help, "counter");
+            values.forEach((labelValue, value) -> out.append(name).append('{').append(label).append("=\"").append(labelValue)
+                    .append("\"} ").append(value.sum()).append('\n'));
+        }
+    }
+
+    private record Gauge(String name, String help, LongSupplier value) implements Metric
+    {
+        @Override
+        public void write(StringBuilder out)
+        {
+            header(out, name, help, "gauge");
+            out.append(name).append(' ').append(value.getAsLong()).append('\n');
+        }
+    }
+
+    // Cumulative buckets as Prometheus expects them are summed up when written, recording only
+    // increments the one bucket the value falls into
+    public static final class Histogram implements Metric
+    {
+        private final String name;
+        private final String help;
+        private final long[] boundsNanos;
+        private final double[] boundsSeconds;
+        private final LongAdder[] buckets;
+        private final LongAdder sumNanos = new LongAdder();
+
+        private Histogram(String name, String help, double... boundsSeconds)
+        {
+            this.name = name;
+            this.help = help;
+            this.boundsSeconds = boundsSeconds;
+            this.boundsNanos = new long[boundsSeconds.length];
+            this.buckets = new LongAdder[boundsSeconds.length + 1];
+
+            for (int i = 0; i < boundsSeconds.length; i++)
+            {
+                boundsNanos[i] = (long) (boundsSeconds[i] * 1e9);
+            }
+
+            for (int i = 0; i < buckets.length; i++)
+            {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        public void recordNanos(long nanos)
+        {
+            int bucket = 0;
+
+            while (bucket < boundsNanos.length && nanos > boundsNanos[bucket])
+            {
+                bucket++;
+            }
+
+            buckets[bucket].increment();
+            sumNanos.add(nanos);
+        }
+
+        @Override
+        public void write(StringBuilder out)
+        {
+            header(out, name, help, "histogram");
+
+            long cumulative = 0;
+
+            for (int i = 0; i < buckets.length; i++)
+            {
+                cumulative += buckets[i].sum();
+                String bound = i < boundsSeconds.length ? String.valueOf(boundsSeconds[i]) : "+Inf";
+                out.append(name).append("_bucket{le=\"").append(bound).append("\"} ").append(cumulative).append('\n');
+            }
+
+            out.append(name).append("_sum ").append(sumNanos.sum() / 1e9).append('\n');
+            out.append(name).append("_count ").append(cumulative).append('\n');
+        }
+    }
+
+    private static Counter counter(String name, String help)
+    {
+        return register(new Counter(name, help));
+    }
+
+    private static LabeledCounter labeledCounter(String name, String help, String label)
+    {
+        return register(new LabeledCounter(name, help, label));
+    }
+
+    private static Histogram histogram(String name, String help, double... boundsSeconds)
+    {
+        return register(new Histogram(name, help, boundsSeconds));
+    }
+
+    private static void gauge(String name, String help, LongSupplier value)
+    {
+        register(new Gauge(name, help, value));
+    }
+
+    private static <T extends Metric> T register(T metric)
+    {
+        metrics.add(metric);
+
+        return metric;
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type)
+    {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    public static String scrape()
+    {
+        StringBuilder out = new StringBuilder();
+        metrics.forEach(metric -> metric.write(out));
+
+        return out.toString();
+    }
+
+    public static synchronized void startServer()
+    {
+        Integer port = Integer.getInteger("coffeecart.metrics.port");
+
+        if (server != null || port == null)
+        {
+            return;
+        }
+
+        try
+        {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        server.createContext("/metrics", SuiteMetrics::serve);
+        server.start();
+
+        System.out.println("Suite metrics on http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/metrics");
+    }
+
+    public static synchronized void stopServer()
+    {
+        if (server != null)
+        {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    public static void writeSnapshot()
+    {
+        Path file = SuiteOutput.file("coffeecart.metrics.file", "metrics.prom");
+
+        try
+        {
+            Files.writeString(file, scrape());
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void serve(HttpExchange exchange) throws IOException
+    {
+        byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+
+        try (OutputStream output = exchange.getResponseBody())
+        {
+            output.write(body);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Test progress for SuiteMetrics, serves the endpoint while the plan runs and writes the final snapshot.
+public class SuiteMetricsListener implements TestExecutionListener
+{
+    private final Map<String, Long> startedAt = new ConcurrentHashMap<>();
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan)
+    {
+        SuiteMetrics.startServer();
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan)
+    {
+        SuiteMetrics.writeSnapshot();
+        SuiteMetrics.stopServer();
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier)
+    {
+        if (testIdentifier.isTest())
+        {
+            startedAt.put(testIdentifier.getUniqueId(), System.nanoTime());
+            SuiteMetrics.testsStarted.increment();
+        }
+    }
+
+    @Override
+    public void executionSkipped(TestIdentifier testIdentifier, String reason)
+    {
+        if (testIdentifier.isTest())
+        {
+            SuiteMetrics.testsStarted.increment();
+            SuiteMetrics.testsFinished.increment("SKIPPED");
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult)
+    {
+        Long started = startedAt.remove(testIdentifier.getUniqueId());
+
+        if (testIdentifier.isTest() && started != null)
+        {
+            SuiteMetrics.testDuration.recordNanos(System.nanoTime() - started);
+            SuiteMetrics.testsFinished.increment(testExecutionResult.getStatus().name());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Location of the files the suite's tooling writes, "target" unless -Dcoffeecart.outputDir is set.
+public final class SuiteOutput
+{
+    private SuiteOutput()
+    {
+    }
+
+    public static Path directory()
+    {
+        Path directory = Path.of(System.getProperty("coffeecart.outputDir", "target"));
+
+        try
+        {
+            return Files.createDirectories(directory);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Path file(String property, String defaultName)
+    {
+        String configured = System.getProperty(property);
+        Path file = configured != null ? Path.of(configured).toAbsolutePath() : directory().resolve(defaultName);
+
+        try
+        {
+            Files.createDirectories(file.getParent());
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        return file;
+    }
+}
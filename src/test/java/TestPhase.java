@@ -0,0 +1,20 @@
+public enum TestPhase
+{
+    DRIVER_ACQUIRE("driverAcquire"),
+    NAVIGATION("navigation"),
+    INTERACTIONS("interactions"),
+    ASSERTIONS("assertions"),
+    TEARDOWN("teardown");
+
+    private final String key;
+
+    TestPhase(String key)
+    {
+        this.key = key;
+    }
+
+    public String key()
+    {
+        return key;
+    }
+}
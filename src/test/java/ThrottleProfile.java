@@ -0,0 +1,77 @@
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+// Named network and CPU conditions, selected with -Dcoffeecart.throttle=<key>. Latency is the added
+// round trip time, bandwidth is in kilobits per second (0 means unlimited).
+public enum ThrottleProfile
+{
+    NONE("none", 0, 0, 0, 1),
+    REGULAR_3G("3g", 300, 1_600, 750, 1),
+    SLOW_3G("slow-3g", 2_000, 400, 400, 1),
+    SLOW_CPU_4X("slow-cpu-4x", 0, 0, 0, 4),
+    SLOW_3G_SLOW_CPU_4X("slow-3g-slow-cpu-4x", 2_000, 400, 400, 4);
+
+    private final String key;
+    private final int latencyMillis;
+    private final int downloadKbps;
+    private final int uploadKbps;
+    private final int cpuSlowdown;
+
+    ThrottleProfile(String key, int latencyMillis, int downloadKbps, int uploadKbps, int cpuSlowdown)
+    {
+        this.key = key;
+        this.latencyMillis = latencyMillis;
+        this.downloadKbps = downloadKbps;
+        this.uploadKbps = uploadKbps;
+        this.cpuSlowdown = cpuSlowdown;
+    }
+
+    public static ThrottleProfile current()
+    {
+        return of(System.getProperty("coffeecart.throttle", NONE.key));
+    }
+
+    public static ThrottleProfile of(String key)
+    {
+        return Arrays.stream(values())
+                .filter(profile -> profile.key.equalsIgnoreCase(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown throttle profile '" + key + "', expected one of "
+                        + Arrays.stream(values()).map(ThrottleProfile::key).collect(Collectors.joining(", "))));
+    }
+
+    public String key()
+    {
+        return key;
+    }
+
+    public int latencyMillis()
+    {
+        return latencyMillis;
+    }
+
+    public int downloadKbps()
+    {
+        return downloadKbps;
+    }
+
+    public int uploadKbps()
+    {
+        return uploadKbps;
+    }
+
+    public int cpuSlowdown()
+    {
+        return cpuSlowdown;
+    }
+
+    public boolean throttlesNetwork()
+    {
+        return latencyMillis > 0 || downloadKbps > 0 || uploadKbps > 0;
+    }
+
+    public boolean throttlesCpu()
+    {
+        return cpuSlowdown > 1;
+    }
+}
@@ -0,0 +1,119 @@
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Proxy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+// Applies the -Dcoffeecart.throttle profile to every session created through Drivers: network
+// conditions through a ThrottlingProxy shared by the whole JVM, CPU slowdown through the DevTools
+// protocol on browsers that expose it.
+public final class Throttling
+{
+    private static final ThrottleProfile profile = ThrottleProfile.current();
+
+    private static ThrottlingProxy proxy;
+    private static boolean cpuWarningShown;
+
+    private Throttling()
+    {
+    }
+
+    public static ThrottleProfile profile()
+    {
+        return profile;
+    }
+
+    public static Capabilities apply(Capabilities options)
+    {
+        if (!profile.throttlesNetwork())
+        {
+            return options;
+        }
+
+        Proxy proxy = new Proxy().setHttpProxy(proxy().address()).setSslProxy(proxy().address());
+
+        // Neither browser proxies loopback traffic unless told to, which would bypass a local app
+        return switch (Browser.of(options))
+        {
+            case FIREFOX ->
+            {
+                FirefoxOptions throttled = new FirefoxOptions();
+                throttled.setProxy(proxy);
+                throttled.addPreference("network.proxy.allow_hijacking_localhost", true);
+
+                yield Browser.firefoxOptions(options).merge(throttled);
+            }
+            case CHROMIUM ->
+            {
+                ChromeOptions throttled = new ChromeOptions();
+                throttled.setProxy(proxy);
+                throttled.addArguments("--proxy-bypass-list=<-loopback>");
+
+                yield Browser.chromeOptions(options).merge(throttled);
+            }
+        };
+    }
+
+    public static void applyCpu(WebDriver driver)
+    {
+        if (!profile.throttlesCpu())
+        {
+            return;
+        }
+
+        if (driver instanceof HasCdp cdp)
+        {
+            cdp.executeCdpCommand("Emulation.setCPUThrottlingRate", Map.of("rate", profile.cpuSlowdown()));
+        }
+        else
+        {
+            warnCpuUnsupported(driver);
+        }
+    }
+
+    private static synchronized void warnCpuUnsupported(WebDriver driver)
+    {
+        if (!cpuWarningShown)
+        {
+            cpuWarningShown = true;
+            System.err.printf("Throttle profile '%s': %s cannot throttle CPU, running at full speed%n",
+                    profile.key(), driver.getClass().getSimpleName());
+        }
+    }
+
+    private static synchronized ThrottlingProxy proxy()
+    {
+        if (proxy == null)
+        {
+            try
+            {
+                proxy = new ThrottlingProxy(profile);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+
+            ThrottlingProxy started = proxy;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                System.out.println("Throttling proxy " + started.statistics());
+
+                try
+                {
+                    started.close();
+                }
+                catch (IOException e)
+                {
+                    // Exiting anyway
+                }
+            }, "throttling-proxy-shutdown"));
+        }
+
+        return proxy;
+    }
+}
@@ -0,0 +1,308 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Local forward proxy (plain HTTP and CONNECT tunnels) that delays and rate-limits every byte
+// passing through it. Half of the profile's round trip latency is added in each direction and the
+// bandwidth limits are shared by all connections, like a single slow link would be.
+public class ThrottlingProxy implements AutoCloseable
+{
+    private static final int bufferSize = 16 * 1024;
+    private static final int maxHeadSize = 64 * 1024;
+
+    private final ThrottleProfile profile;
+    private final ServerSocket serverSocket;
+    private final Link download;
+    private final Link upload;
+    private final LongAdder connections = new LongAdder();
+
+    public ThrottlingProxy(ThrottleProfile profile) throws IOException
+    {
+        this.profile = profile;
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.download = new Link(profile.downloadKbps());
+        this.upload = new Link(profile.uploadKbps());
+
+        Thread.ofVirtual().name("throttling-proxy").start(this::acceptLoop);
+    }
+
+    public String address()
+    {
+        return serverSocket.getInetAddress().getHostAddress() + ":" + serverSocket.getLocalPort();
+    }
+
+    public String statistics()
+    {
+        return String.format("%s: %d connections, %d KiB down, %d KiB up",
+                profile.key(), connections.sum(), download.bytes.sum() / 1024, upload.bytes.sum() / 1024);
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        serverSocket.close();
+    }
+
+    private void acceptLoop()
+    {
+        while (!serverSocket.isClosed())
+        {
+            try
+            {
+                Socket client = serverSocket.accept();
+                connections.increment();
+
+                Thread.ofVirtual().start(() -> handle(client));
+            }
+            catch (IOException e)
+            {
+                // Closed while accepting
+            }
+        }
+    }
+
+    private void handle(Socket client)
+    {
+        try (client)
+        {
+            String head = readHead(client.getInputStream());
+
+            if (head.isEmpty())
+            {
+                return;
+            }
+
+            String[] requestLine = head.substring(0, head.indexOf("\r\n")).split(" ");
+
+            if (requestLine[0].equals("CONNECT"))
+            {
+                String[] hostAndPort = requestLine[1].split(":");
+
+                try (Socket upstream = new Socket(hostAndPort[0], Integer.parseInt(hostAndPort[1])))
+                {
+                    client.getOutputStream().write("HTTP/1.1 200 Connection Established\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                    client.getOutputStream().flush();
+
+                    tunnel(client, upstream, new byte[0]);
+                }
+            }
+            else
+            {
+                URI uri = URI.create(requestLine[1]);
+                int port = uri.getPort() != -1 ? uri.getPort() : 80;
+
+                try (Socket upstream = new Socket())
+                {
+                    upstream.connect(new InetSocketAddress(uri.getHost(), port));
+
+                    tunnel(client, upstream, rewriteHead(head, requestLine, uri).getBytes(StandardCharsets.ISO_8859_1));
+                }
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            // The browser sees a dropped connection, exactly as it would on a flaky network
+        }
+    }
+
+    // Absolute-form request line to origin-form, one request per upstream connection
+    private static String rewriteHead(String head, String[] requestLine, URI uri)
+    {
+        String path = uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+
+        if (uri.getRawQuery() != null)
+        {
+            path += "?" + uri.getRawQuery();
+        }
+
+        StringBuilder rewritten = new StringBuilder()
+                .append(requestLine[0]).append(' ').append(path).append(' ').append(requestLine[2]).append("\r\n");
+
+        for (String header : head.substring(head.indexOf("\r\n") + 2).split("\r\n"))
+        {
+            String name = header.contains(":") ? header.substring(0, header.indexOf(':')).trim() : "";
+
+            if (!header.isEmpty() && !name.equalsIgnoreCase("Proxy-Connection") && !name.equalsIgnoreCase("Connection"))
+            {
+                rewritten.append(header).append("\r\n");
+            }
+        }
+
+        return rewritten.append("Connection: close\r\n\r\n").toString();
+    }
+
+    private static String readHead(InputStream input) throws IOException
+    {
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        int matched = 0;
+
+        while (matched < 4 && head.size() < maxHeadSize)
+        {
+            int next = input.read();
+
+            if (next == -1)
+            {
+                return "";
+            }
+
+            head.write(next);
+
+            if ((next == '\r' && matched % 2 == 0) || (next == '\n' && matched % 2 == 1))
+            {
+                ++matched;
+            }
+            else
+            {
+                matched = next == '\r' ? 1 : 0;
+            }
+        }
+
+        return head.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    private void tunnel(Socket client, Socket upstream, byte[] firstBytes) throws IOException
+    {
+        Thread toUpstream = Thread.ofVirtual().start(() -> relay(client, upstream, upload, firstBytes));
+        relay(upstream, client, download, new byte[0]);
+
+        try
+        {
+            toUpstream.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // The reader stamps every chunk with its delivery time and a separate writer releases it, so
+    // the latency is paid once per burst instead of once per chunk.
+    private void relay(Socket from, Socket to, Link link, byte[] firstBytes)
+    {
+        long oneWayNanos = TimeUnit.MILLISECONDS.toNanos(profile.latencyMillis()) / 2;
+        BlockingQueue<Chunk> queue = new LinkedBlockingQueue<>();
+
+        Thread writer = Thread.ofVirtual().start(() -> {
+            try
+            {
+                OutputStream output = to.getOutputStream();
+
+                for (Chunk chunk = queue.take(); chunk.data != null; chunk = queue.take())
+                {
+                    long delay = chunk.deliverAt - System.nanoTime();
+
+                    if (delay > 0)
+                    {
+                        TimeUnit.NANOSECONDS.sleep(delay);
+                    }
+
+                    link.transmit(chunk.data.length);
+                    output.write(chunk.data);
+                    output.flush();
+                }
+
+                to.shutdownOutput();
+            }
+            catch (IOException | InterruptedException e)
+            {
+                closeQuietly(to);
+            }
+        });
+
+        try
+        {
+            if (firstBytes.length > 0)
+            {
+                queue.add(new Chunk(System.nanoTime() + oneWayNanos, firstBytes));
+            }
+
+            InputStream input = from.getInputStream();
+            byte[] buffer = new byte[bufferSize];
+
+            for (int read = input.read(buffer); read != -1; read = input.read(buffer))
+            {
+                byte[] data = new byte[read];
+                System.arraycopy(buffer, 0, data, 0, read);
+
+                queue.add(new Chunk(System.nanoTime() + oneWayNanos, data));
+            }
+        }
+        catch (IOException e)
+        {
+            closeQuietly(from);
+        }
+        finally
+        {
+            queue.add(new Chunk(0, null));
+        }
+
+        try
+        {
+            writer.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(Socket socket)
+    {
+        try
+        {
+            socket.close();
+        }
+        catch (IOException e)
+        {
+            // Already closed
+        }
+    }
+
+    private record Chunk(long deliverAt, byte[] data)
+    {
+    }
+
+    private static final class Link
+    {
+        private final double nanosPerByte;
+        private final LongAdder bytes = new LongAdder();
+        private long nextFree;
+
+        private Link(int kbps)
+        {
+            this.nanosPerByte = kbps > 0 ? 8_000_000.0 / kbps : 0;
+        }
+
+        private void transmit(int length) throws InterruptedException
+        {
+            bytes.add(length);
+
+            if (nanosPerByte == 0)
+            {
+                return;
+            }
+
+            long wait;
+
+            synchronized (this)
+            {
+                long now = System.nanoTime();
+                nextFree = Math.max(now, nextFree) + (long) (length * nanosPerByte);
+                wait = nextFree - now;
+            }
+
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
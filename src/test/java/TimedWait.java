@@ -0,0 +1,196 @@
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.FluentWait;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Drop-in WebDriverWait with adaptive polling. The condition is checked immediately; if it is not
+// met yet the first poll is scheduled shortly before the condition has historically been satisfied
+// and later polls back off exponentially from a few milliseconds, never sleeping longer than a quarter
+// of the time already waited. Every wait is recorded in
+// WaitStatistics, which also feeds the history used for the first poll.
+public class TimedWait extends WebDriverWait
+{
+    private static final long minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long maxIntervalNanos = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final WebDriver driver;
+    // Filled by the WebDriverWait constructor, before field initializers would run
+    private List<Class<? extends Throwable>> ignoredExceptions;
+    private Duration timeout;
+    private Supplier<String> messageSupplier = () -> null;
+
+    public TimedWait(WebDriver driver, Duration timeout)
+    {
+        super(driver, timeout);
+
+        this.driver = driver;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public FluentWait<WebDriver> withTimeout(Duration timeout)
+    {
+        this.timeout = timeout;
+
+        return super.withTimeout(timeout);
+    }
+
+    @Override
+    public FluentWait<WebDriver> withMessage(String message)
+    {
+        this.messageSupplier = () -> message;
+
+        return super.withMessage(message);
+    }
+
+    @Override
+    public FluentWait<WebDriver> withMessage(Supplier<String> messageSupplier)
+    {
+        this.messageSupplier = messageSupplier;
+
+        return super.withMessage(messageSupplier);
+    }
+
+    @Override
+    public <K extends Throwable> FluentWait<WebDriver> ignoreAll(Collection<Class<? extends K>> types)
+    {
+        ignoredExceptions().addAll(types);
+
+        return super.ignoreAll(types);
+    }
+
+    @Override
+    public FluentWait<WebDriver> ignoring(Class<? extends Throwable> exceptionType)
+    {
+        ignoredExceptions().add(exceptionType);
+
+        return super.ignoring(exceptionType);
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue)
+    {
+        if (!FlightRecording.isEnabled())
+        {
+            return poll(isTrue);
+        }
+
+        SuiteEvents.Wait event = new SuiteEvents.Wait();
+        event.setTest(CurrentTest.get());
+        event.condition = String.valueOf(isTrue);
+        event.begin();
+
+        try
+        {
+            V result = poll(isTrue);
+            event.satisfied = true;
+
+            return result;
+        }
+        finally
+        {
+            event.commit();
+        }
+    }
+
+    private <V> V poll(Function<? super WebDriver, V> isTrue)
+    {
+        String key = WaitStatistics.key(isTrue);
+        Trace.syncHelpers();
+        long started = System.nanoTime();
+        long deadline = started + timeout.toNanos();
+        long interval = minIntervalNanos;
+        int polls = 0;
+        Throwable lastException = null;
+
+        while (true)
+        {
+            ++polls;
+
+            try
+            {
+                V value = isTrue.apply(driver);
+
+                if (value != null && (Boolean.class != value.getClass() || Boolean.TRUE.equals(value)))
+                {
+                    WaitStatistics.record(key, System.nanoTime() - started, polls, true);
+
+                    return value;
+                }
+
+                lastException = null;
+            }
+            catch (Throwable e)
+            {
+                if (!isIgnored(e))
+                {
+                    throw e;
+                }
+
+                lastException = e;
+            }
+
+            long now = System.nanoTime();
+
+            if (now >= deadline)
+            {
+                WaitStatistics.record(key, now - started, polls, false);
+
+                String message = messageSupplier.get();
+                String timeoutMessage = String.format("Expected condition failed: %s (tried for %s with adaptive polling, %d polls)",
+                        message == null ? "waiting for " + isTrue : message, timeout, polls);
+
+                throw timeoutException(timeoutMessage, lastException);
+            }
+
+            long sleep;
+
+            if (polls == 1)
+            {
+                // Sleep until just before the condition usually becomes true
+                long expected = WaitStatistics.expectedNanos(key);
+                sleep = Math.max(minIntervalNanos, Math.min(maxIntervalNanos, expected * 8 / 10 - (now - started)));
+            }
+            else
+            {
+                // Doubling, but never more than a quarter of the time already waited, which bounds
+                // the overshoot past the moment the condition became true
+                interval = Math.min(maxIntervalNanos, Math.min(interval * 2, Math.max(minIntervalNanos, (now - started) / 4)));
+                sleep = interval;
+            }
+
+            try
+            {
+                TimeUnit.NANOSECONDS.sleep(Math.min(sleep, deadline - now));
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new WebDriverException(e);
+            }
+        }
+    }
+
+    private List<Class<? extends Throwable>> ignoredExceptions()
+    {
+        if (ignoredExceptions == null)
+        {
+            ignoredExceptions = new ArrayList<>();
+        }
+
+        return ignoredExceptions;
+    }
+
+    private boolean isIgnored(Throwable exception)
+    {
+        return ignoredExceptions().stream().anyMatch(type -> type.isInstance(exception));
+    }
+}
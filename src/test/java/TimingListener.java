@@ -0,0 +1,29 @@
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+public class TimingListener implements WebDriverListener
+{
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args)
+    {
+        TestPhase phase = WebDriverCalls.isNavigation(target, method) ? TestPhase.NAVIGATION : TestPhase.INTERACTIONS;
+
+        Trace.syncHelpers();
+        PhaseTimings.current().enter(phase);
+        Trace.detail(WebDriverCalls.describe(target, method));
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result)
+    {
+        PhaseTimings.current().exit();
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e)
+    {
+        PhaseTimings.current().exit();
+    }
+}
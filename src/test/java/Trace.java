@@ -0,0 +1,269 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Timeline of the run in the Chrome trace event format (chrome://tracing, ui.perfetto.dev), one lane
+// per thread: test classes and tests, their phases (driver acquire, navigation, each WebDriver command,
+// teardown), waits, session pre-warming and the test class's own helper methods. Helpers are found by
+// walking the stack at every command and wait, so a helper span runs from its first command to the end
+// of its last one. Every thread appends to its own buffer, the buffers are merged into target/trace.json
+// (-Dcoffeecart.trace.file) after the run. Enabled with -Dcoffeecart.trace=true.
+public final class Trace
+{
+    private static final boolean enabled = Boolean.getBoolean("coffeecart.trace");
+    private static final long origin = System.nanoTime();
+    private static final StackWalker walker = StackWalker.getInstance();
+
+    private static final Queue<Buffer> buffers = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<Buffer> buffer = ThreadLocal.withInitial(() -> {
+        Buffer created = new Buffer(Thread.currentThread());
+        buffers.add(created);
+
+        return created;
+    });
+
+    private Trace()
+    {
+    }
+
+    private record Span(String category, String name, String detail, long startNanos, long endNanos)
+    {
+    }
+
+    private static final class Open
+    {
+        private final String category;
+        private final String name;
+        private final long startNanos;
+        private String detail;
+
+        private Open(String category, String name, long startNanos)
+        {
+            this.category = category;
+            this.name = name;
+            this.startNanos = startNanos;
+        }
+    }
+
+    // A helper method of the test class, identified by its name and the line it was called from
+    private record Helper(String key, String name, long startNanos)
+    {
+    }
+
+    private static final class Buffer
+    {
+        private final long threadId;
+        private final String threadName;
+        private final List<Span> spans = new ArrayList<>();
+        private final Deque<Open> open = new ArrayDeque<>();
+        private final List<Helper> helpers = new ArrayList<>();
+        private long lastActivityEnd;
+
+        private Buffer(Thread thread)
+        {
+            this.threadId = thread.threadId();
+            this.threadName = thread.getName();
+        }
+
+        private void add(String category, String name, String detail, long startNanos, long endNanos)
+        {
+            spans.add(new Span(category, name, detail, startNanos, endNanos));
+            lastActivityEnd = Math.max(lastActivityEnd, endNanos);
+        }
+
+        private void closeHelpers(int keep)
+        {
+            while (helpers.size() > keep)
+            {
+                Helper helper = helpers.removeLast();
+                spans.add(new Span("helper", helper.name(), null, helper.startNanos(), Math.max(helper.startNanos(), lastActivityEnd)));
+            }
+        }
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public static void begin(String category, String name)
+    {
+        if (enabled)
+        {
+            buffer.get().open.push(new Open(category, name, System.nanoTime()));
+        }
+    }
+
+    // Extra text for the innermost open span, e.g. the WebDriver command of a phase
+    public static void detail(String detail)
+    {
+        if (enabled && !buffer.get().open.isEmpty())
+        {
+            buffer.get().open.peek().detail = detail;
+        }
+    }
+
+    public static void end()
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        Buffer current = buffer.get();
+        Open span = current.open.poll();
+
+        if (span != null)
+        {
+            current.add(span.category, span.name, span.detail, span.startNanos, System.nanoTime());
+        }
+    }
+
+    public static void complete(String category, String name, long startNanos, long endNanos)
+    {
+        if (enabled)
+        {
+            buffer.get().add(category, name, null, startNanos, endNanos);
+        }
+    }
+
+    // Called before WebDriver commands and waits: opens spans for helpers of the test class that are
+    // now on the stack and closes the ones that returned
+    public static void syncHelpers()
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        String testClass = CurrentTest.get().className();
+
+        if (testClass.isEmpty())
+        {
+            return;
+        }
+
+        // Innermost first
+        List<StackWalker.StackFrame> frames = walker.walk(stream -> stream
+                .filter(frame -> frame.getClassName().equals(testClass))
+                .toList());
+        List<Helper> onStack = new ArrayList<>();
+        long now = System.nanoTime();
+
+        // The outermost frame is the test or lifecycle method itself, lambdas belong to their enclosing method
+        for (int i = frames.size() - 2; i >= 0; i--)
+        {
+            String method = frames.get(i).getMethodName();
+
+            if (!method.startsWith("lambda$"))
+            {
+                onStack.add(new Helper(frames.get(i + 1).getLineNumber() + ":" + method, method, now));
+            }
+        }
+
+        Buffer current = buffer.get();
+        int common = 0;
+
+        while (common < onStack.size() && common < current.helpers.size()
+                && current.helpers.get(common).key().equals(onStack.get(common).key()))
+        {
+            common++;
+        }
+
+        current.closeHelpers(common);
+        current.helpers.addAll(onStack.subList(common, onStack.size()));
+    }
+
+    public static void closeHelpers()
+    {
+        if (enabled)
+        {
+            buffer.get().closeHelpers(0);
+        }
+    }
+
+    public static void write(Path file)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        int events = 0;
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8))
+        {
+            writer.write("{\"displayTimeUnit\": \"ms\", \"traceEvents\": [\n");
+            writer.write(JsonLines.toJson(metadata("process_name", 0, "coffee-cart suite")));
+
+            for (Buffer threadBuffer : buffers)
+            {
+                writer.write(",\n");
+                writer.write(JsonLines.toJson(metadata("thread_name", threadBuffer.threadId, threadBuffer.threadName)));
+
+                // Longer spans first where two start together, so the viewer nests them correctly
+                List<Span> spans = new ArrayList<>(threadBuffer.spans);
+                spans.sort((a, b) -> a.startNanos() != b.startNanos()
+                        ? Long.compare(a.startNanos(), b.startNanos())
+                        : Long.compare(b.endNanos(), a.endNanos()));
+
+                for (Span span : spans)
+                {
+                    writer.write(",\n");
+                    writer.write(JsonLines.toJson(event(span, threadBuffer.threadId)));
+                    events++;
+                }
+            }
+
+            writer.write("\n]}\n");
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        System.out.printf("Trace with %d spans written to %s, open it in ui.perfetto.dev or chrome://tracing%n", events, file);
+    }
+
+    private static Map<String, Object> event(Span span, long threadId)
+    {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("name", span.name());
+        event.put("cat", span.category());
+        event.put("ph", "X");
+        event.put("ts", (span.startNanos() - origin) / 1000.0);
+        event.put("dur", (span.endNanos() - span.startNanos()) / 1000.0);
+        event.put("pid", 1);
+        event.put("tid", threadId);
+
+        if (span.detail() != null)
+        {
+            event.put("args", Map.of("detail", span.detail()));
+        }
+
+        return event;
+    }
+
+    private static Map<String, Object> metadata(String name, long threadId, String value)
+    {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("name", name);
+        event.put("ph", "M");
+        event.put("pid", 1);
+        event.put("tid", threadId);
+        event.put("args", Map.of("name", value));
+
+        return event;
+    }
+}
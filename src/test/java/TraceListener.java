@@ -0,0 +1,41 @@
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+// Test class and test spans for the Trace, written out when the plan is done.
+public class TraceListener implements TestExecutionListener
+{
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan)
+    {
+        Trace.write(SuiteOutput.file("coffeecart.trace.file", "trace.json"));
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier)
+    {
+        if (isTraced(testIdentifier))
+        {
+            Trace.begin(testIdentifier.isTest() ? "test" : "class", testIdentifier.getDisplayName());
+        }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult)
+    {
+        if (isTraced(testIdentifier))
+        {
+            Trace.closeHelpers();
+            Trace.detail(testExecutionResult.getStatus().name());
+            Trace.end();
+        }
+    }
+
+    private static boolean isTraced(TestIdentifier testIdentifier)
+    {
+        return Trace.isEnabled() && (testIdentifier.isTest()
+                || testIdentifier.getSource().filter(ClassSource.class::isInstance).isPresent());
+    }
+}
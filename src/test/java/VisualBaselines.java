@@ -0,0 +1,247 @@
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Screenshot baselines in ./visual-baselines/<browser> (-Dcoffeecart.visual.baselines), one PNG plus its
+// perceptual hash per name, committed with the tests. Screenshots are taken on the test thread, everything else runs on a shared pool:
+//   1. byte-identical to the baseline PNG: match without decoding anything
+//   2. same size and same perceptual hash: match (the hash scales any size onto its grid)
+//   3. otherwise a pixel diff decides, failures leave <name>-actual.png and <name>-diff.png in
+//      target/visual-diffs
+// A missing baseline fails the check and leaves <name>-actual.png in target/visual-diffs;
+// -Dcoffeecart.visual.update=true creates missing baselines and replaces all others.
+public final class VisualBaselines
+{
+    private static final Path baselines = Path.of(System.getProperty("coffeecart.visual.baselines", "visual-baselines"));
+    private static final boolean update = Boolean.getBoolean("coffeecart.visual.update");
+    private static final double maxDiffRatio = Double.parseDouble(System.getProperty("coffeecart.visual.maxDiffRatio", "0.001"));
+    private static final int channelTolerance = Integer.getInteger("coffeecart.visual.channelTolerance", 24);
+
+    // Waits for running CSS transitions and finite animations (the rotating cups) and two painted frames
+    private static final String settleScript = """
+            const done = arguments[arguments.length - 1];
+            const finite = document.getAnimations().filter(animation => animation.effect.getComputedTiming().endTime !== Infinity);
+            Promise.all(finite.map(animation => animation.finished.catch(() => null)))
+                .then(() => requestAnimationFrame(() => requestAnimationFrame(() => done(null))));
+            """;
+
+    private static final ExecutorService comparisons = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2), runnable -> {
+                Thread thread = new Thread(runnable, "visual-compare");
+                thread.setDaemon(true);
+
+                return thread;
+            });
+
+    private VisualBaselines()
+    {
+    }
+
+    public enum Status
+    {
+        MISSING_BASELINE,
+        NEW_BASELINE,
+        IDENTICAL,
+        HASH_MATCH,
+        PIXEL_MATCH,
+        DIFFERENT;
+
+        public boolean isMatch()
+        {
+            return this != DIFFERENT && this != MISSING_BASELINE;
+        }
+    }
+
+    public record Result(String name, Status status, int hashDistance, double diffRatio, long compareNanos)
+    {
+        public boolean isMatch()
+        {
+            return status.isMatch();
+        }
+
+        public double compareMillis()
+        {
+            return compareNanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString()
+        {
+            if (status == Status.MISSING_BASELINE)
+            {
+                return name + ": no baseline yet, review target/visual-diffs/" + name
+                        + "-actual.png and rerun with -Dcoffeecart.visual.update=true to create it";
+            }
+
+            return String.format("%s: %s (hash distance %d, %.4f%% pixels differ, %.2f ms)", name, status, hashDistance,
+                    diffRatio * 100, compareMillis());
+        }
+    }
+
+    public static CompletableFuture<Result> check(String name, WebDriver driver)
+    {
+        settle(driver);
+
+        return check(name, ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES));
+    }
+
+    public static CompletableFuture<Result> check(String name, WebDriver driver, WebElement element)
+    {
+        return check(name, screenshot(driver, element));
+    }
+
+    public static CompletableFuture<Result> check(String name, byte[] png)
+    {
+        return check(baselines.resolve(Browser.current().key()), update, name, png);
+    }
+
+    static CompletableFuture<Result> check(Path directory, boolean update, String name, byte[] png)
+    {
+        if (!name.matches("[\\w.-]+"))
+        {
+            throw new IllegalArgumentException("Baseline names are used as file names: " + name);
+        }
+
+        return CompletableFuture.supplyAsync(() -> compare(directory, update, name, png), comparisons);
+    }
+
+    // The element once animations have settled, for tests that compare screenshots with each other
+    public static byte[] screenshot(WebDriver driver, WebElement element)
+    {
+        settle(driver);
+
+        return element.getScreenshotAs(OutputType.BYTES);
+    }
+
+    // Whether two screenshots pass for the same image under the thresholds baselines are checked with
+    public static boolean looksSame(byte[] png, byte[] otherPng)
+    {
+        try
+        {
+            return Arrays.equals(png, otherPng) || PixelDiff.compare(decode(png), decode(otherPng), channelTolerance).ratio() <= maxDiffRatio;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void settle(WebDriver driver)
+    {
+        ((JavascriptExecutor) driver).executeAsyncScript(settleScript);
+    }
+
+    private static Result compare(Path directory, boolean update, String name, byte[] png)
+    {
+        long started = System.nanoTime();
+        Path baselineFile = directory.resolve(name + ".png");
+        Path hashFile = directory.resolve(name + ".phash");
+        Path diffs = SuiteOutput.directory().resolve("visual-diffs");
+
+        try
+        {
+            if (!update && !Files.exists(baselineFile))
+            {
+                Files.createDirectories(diffs);
+                Files.write(diffs.resolve(name + "-actual.png"), png);
+
+                return new Result(name, Status.MISSING_BASELINE, 0, 0, System.nanoTime() - started);
+            }
+
+            if (update)
+            {
+                PerceptualHash hash = PerceptualHash.of(decode(png));
+
+                Files.createDirectories(directory);
+                Files.write(baselineFile, png);
+                Files.writeString(hashFile, hash.toString());
+
+                return new Result(name, Status.NEW_BASELINE, 0, 0, System.nanoTime() - started);
+            }
+
+            byte[] baselinePng = Files.readAllBytes(baselineFile);
+
+            if (Arrays.equals(baselinePng, png))
+            {
+                return new Result(name, Status.IDENTICAL, 0, 0, System.nanoTime() - started);
+            }
+
+            BufferedImage actual = decode(png);
+            PerceptualHash actualHash = PerceptualHash.of(actual);
+            PerceptualHash baselineHash = Files.exists(hashFile)
+                    ? PerceptualHash.parse(Files.readString(hashFile, StandardCharsets.US_ASCII))
+                    : PerceptualHash.of(decode(baselinePng));
+            int hashDistance = baselineHash.distance(actualHash);
+
+            if (hashDistance == 0 && Arrays.equals(pngSize(baselinePng), pngSize(png)))
+            {
+                return new Result(name, Status.HASH_MATCH, 0, 0, System.nanoTime() - started);
+            }
+
+            BufferedImage baseline = decode(baselinePng);
+            PixelDiff.Result diff = PixelDiff.compare(baseline, actual, channelTolerance);
+
+            if (diff.ratio() <= maxDiffRatio)
+            {
+                return new Result(name, Status.PIXEL_MATCH, hashDistance, diff.ratio(), System.nanoTime() - started);
+            }
+
+            long compareNanos = System.nanoTime() - started;
+
+            Files.createDirectories(diffs);
+            Files.write(diffs.resolve(name + "-actual.png"), png);
+            ImageIO.write(PixelDiff.highlight(baseline, actual, channelTolerance), "png", diffs.resolve(name + "-diff.png").toFile());
+
+            return new Result(name, Status.DIFFERENT, hashDistance, diff.ratio(), compareNanos);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Width and height from the IHDR chunk, which always directly follows the 8 byte PNG signature
+    private static int[] pngSize(byte[] png) throws IOException
+    {
+        if (png.length >= 24 && png[12] == 'I' && png[13] == 'H' && png[14] == 'D' && png[15] == 'R')
+        {
+            ByteBuffer header = ByteBuffer.wrap(png, 16, 8);
+
+            return new int[] {header.getInt(), header.getInt()};
+        }
+
+        BufferedImage image = decode(png);
+
+        return new int[] {image.getWidth(), image.getHeight()};
+    }
+
+    private static BufferedImage decode(byte[] png) throws IOException
+    {
+        // In memory, ImageIO would otherwise buffer the stream through a temporary file
+        BufferedImage image = ImageIO.read(new MemoryCacheImageInputStream(new ByteArrayInputStream(png)));
+
+        if (image == null)
+        {
+            throw new IOException("Screenshot is not a readable image");
+        }
+
+        return image;
+    }
+}
@@ -0,0 +1,144 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VisualCompareTest
+{
+    private static BufferedImage page(Color button, String text)
+    {
+        BufferedImage image = new BufferedImage(1366, 768, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 1366, 768);
+        graphics.setColor(new Color(218, 165, 32));
+        graphics.fillOval(100, 100, 200, 200);
+        graphics.setColor(button);
+        graphics.fillRect(1000, 650, 300, 60);
+        graphics.setColor(Color.BLACK);
+        graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 24));
+        graphics.drawString(text, 1020, 690);
+        graphics.dispose();
+
+        return image;
+    }
+
+    @Test
+    public void testSameImageHasSameHash()
+    {
+        PerceptualHash hash = PerceptualHash.of(page(Color.GRAY, "Total: $10.00"));
+
+        assertEquals(0, hash.distance(PerceptualHash.of(page(Color.GRAY, "Total: $10.00"))));
+        assertEquals(0, hash.distance(PerceptualHash.parse(hash.toString())));
+    }
+
+    @Test
+    public void testChangedLayoutChangesHash()
+    {
+        BufferedImage moved = page(Color.GRAY, "Total: $10.00");
+        Graphics2D graphics = moved.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 683, 768);
+        graphics.dispose();
+
+        assertTrue(PerceptualHash.of(page(Color.GRAY, "Total: $10.00")).distance(PerceptualHash.of(moved)) > 0);
+    }
+
+    @Test
+    public void testChangedColorChangesHash()
+    {
+        PerceptualHash gray = PerceptualHash.of(page(Color.GRAY, "Total: $10.00"));
+
+        assertTrue(gray.distance(PerceptualHash.of(page(Color.RED, "Total: $10.00"))) > 0);
+    }
+
+    @Test
+    public void testPixelDiffCountsChangedPixelsOnly()
+    {
+        PixelDiff.Result same = PixelDiff.compare(page(Color.GRAY, "Total: $10.00"), page(Color.GRAY, "Total: $10.00"), 24);
+        PixelDiff.Result recolored = PixelDiff.compare(page(Color.GRAY, "Total: $10.00"), page(Color.RED, "Total: $10.00"), 24);
+
+        assertEquals(0, same.differentPixels());
+        assertTrue(recolored.differentPixels() > 0 && recolored.differentPixels() <= 300 * 60);
+        assertEquals(0xFFFF0000, PixelDiff.highlight(page(Color.GRAY, "Total: $10.00"), page(Color.RED, "Total: $10.00"), 24).getRGB(1005, 655));
+    }
+
+    @Test
+    public void testColorsWithinToleranceAreEqual()
+    {
+        PixelDiff.Result diff = PixelDiff.compare(page(new Color(128, 128, 128), "Total: $10.00"),
+                page(new Color(140, 120, 128), "Total: $10.00"), 24);
+
+        assertEquals(0, diff.differentPixels());
+    }
+
+    @Test
+    public void testDifferentSizesNeverMatch()
+    {
+        BufferedImage small = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+
+        assertEquals(1.0, PixelDiff.compare(page(Color.GRAY, "Total: $10.00"), small, 24).ratio());
+    }
+
+    @Test
+    public void testResizedElementNeverMatchesBaseline(@TempDir Path baselines) throws Exception
+    {
+        String name = "visual-compare-test-resized";
+
+        assertEquals(VisualBaselines.Status.NEW_BASELINE, VisualBaselines.check(baselines, true, name, box(300, 100)).get().status());
+
+        VisualBaselines.Result resized = VisualBaselines.check(baselines, false, name, box(300, 160)).get();
+
+        assertEquals(VisualBaselines.Status.DIFFERENT, resized.status());
+        assertEquals(0, resized.hashDistance());
+    }
+
+    @Test
+    public void testMissingBaselineFailsUnlessUpdating(@TempDir Path baselines) throws Exception
+    {
+        String name = "visual-compare-test-missing";
+
+        VisualBaselines.Result missing = VisualBaselines.check(baselines, false, name, box(300, 100)).get();
+
+        assertEquals(VisualBaselines.Status.MISSING_BASELINE, missing.status());
+        assertFalse(missing.isMatch());
+        assertFalse(Files.exists(baselines.resolve(name + ".png")));
+
+        assertEquals(VisualBaselines.Status.NEW_BASELINE, VisualBaselines.check(baselines, true, name, box(300, 100)).get().status());
+        assertEquals(VisualBaselines.Status.IDENTICAL, VisualBaselines.check(baselines, false, name, box(300, 100)).get().status());
+    }
+
+    @Test
+    public void testLooksSameComparesPixels() throws Exception
+    {
+        assertTrue(VisualBaselines.looksSame(box(300, 100), box(300, 100)));
+        assertFalse(VisualBaselines.looksSame(box(300, 100), box(300, 160)));
+    }
+
+    private static byte[] box(int width, int height) throws IOException
+    {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.GRAY);
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+
+        return png.toByteArray();
+    }
+}
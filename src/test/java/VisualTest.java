@@ -0,0 +1,193 @@
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Screenshot comparisons of the views that are otherwise only checked through CSS properties, see VisualBaselines
+@Tag("browser")
+@ExtendWith(InfrastructureBreaker.class)
+public class VisualTest
+{
+    private static Capabilities browserOptions;
+    private static final Queue<VisualBaselines.Result> results = new ConcurrentLinkedQueue<>();
+    private WebDriver webDriver;
+    private WebDriverWait wait;
+    private List<CompletableFuture<VisualBaselines.Result>> pending;
+
+    private static final String menuUrl = CoffeeCatalog.get().url("menu");
+    private static final String cartUrl = CoffeeCatalog.get().url("cart");
+
+    @BeforeAll
+    public static void setupClass()
+    {
+        Browser.current().setupDriver();
+
+        browserOptions = Drivers.defaultOptions();
+    }
+
+    @AfterAll
+    public static void teardownClass()
+    {
+        results.forEach(System.out::println);
+        System.out.printf("Visual comparisons: %d, mean %.2f ms%n", results.size(),
+                results.stream().mapToDouble(VisualBaselines.Result::compareMillis).average().orElse(0));
+    }
+
+    @BeforeEach
+    public void setup()
+    {
+        webDriver = Drivers.create(browserOptions);
+        wait = new TimedWait(webDriver, Duration.ofSeconds(5));
+        pending = new ArrayList<>();
+        webDriver.get(menuUrl);
+    }
+
+    @AfterEach
+    public void teardown()
+    {
+        Drivers.quit(webDriver);
+    }
+
+    private void check(String name)
+    {
+        pending.add(VisualBaselines.check(name, webDriver));
+    }
+
+    private void check(String name, WebElement element)
+    {
+        pending.add(VisualBaselines.check(name, webDriver, element));
+    }
+
+    // Comparisons run while the test goes on, they are only waited for here
+    private void assertVisualsMatch()
+    {
+        for (CompletableFuture<VisualBaselines.Result> future : pending)
+        {
+            VisualBaselines.Result result = future.join();
+            results.add(result);
+
+            assertTrue(result.isMatch(), result::toString);
+        }
+    }
+
+    private WebElement getFirstCup()
+    {
+        return webDriver.findElement(By.cssSelector("li[data-v-a9662a08] div div.cup"));
+    }
+
+    private WebElement getPayButton()
+    {
+        return webDriver.findElement(By.cssSelector("button.pay"));
+    }
+
+    private void addCoffees(int count)
+    {
+        WebElement cup = getFirstCup();
+
+        for (int i = 0; i < count; ++i)
+        {
+            cup.click();
+        }
+    }
+
+    @Test
+    public void testMenuView()
+    {
+        wait.until(ExpectedConditions.visibilityOf(getFirstCup()));
+
+        check("menu");
+
+        assertVisualsMatch();
+    }
+
+    @Test
+    public void testCupRotatesOnHover()
+    {
+        WebElement cup = getFirstCup();
+        byte[] resting = VisualBaselines.screenshot(webDriver, cup);
+        pending.add(VisualBaselines.check("cup", resting));
+
+        new Actions(webDriver)
+                .moveToElement(cup)
+                .perform();
+
+        byte[] hovered = VisualBaselines.screenshot(webDriver, cup);
+        pending.add(VisualBaselines.check("cup-hovered", hovered));
+
+        assertFalse(VisualBaselines.looksSame(resting, hovered), "Hovering did not change the cup");
+        assertVisualsMatch();
+    }
+
+    @Test
+    public void testCartPreviewOnHover()
+    {
+        addCoffees(2);
+
+        new Actions(webDriver)
+                .moveToElement(getPayButton())
+                .perform();
+
+        WebElement cartPreview = wait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector("ul.cart-preview")));
+
+        check("cart-preview", cartPreview);
+
+        assertVisualsMatch();
+    }
+
+    @Test
+    public void testPromoBox()
+    {
+        addCoffees(3);
+
+        WebElement promo = wait.until(ExpectedConditions.visibilityOfElementLocated(By.className("promo")));
+
+        check("promo", promo);
+
+        assertVisualsMatch();
+    }
+
+    @Test
+    public void testPaymentModal()
+    {
+        getPayButton().click();
+
+        WebElement modal = wait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector("div.modal-content")));
+
+        check("payment-modal", modal);
+
+        assertVisualsMatch();
+    }
+
+    @Test
+    public void testCartView()
+    {
+        addCoffees(1);
+        webDriver.get(cartUrl);
+
+        wait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector("li.list-item")));
+
+        check("cart");
+
+        assertVisualsMatch();
+    }
+}
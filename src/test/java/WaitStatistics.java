@@ -0,0 +1,138 @@
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Time-to-satisfy history per wait condition, shared by all threads, plus the wait time of the test
+// running on the current thread.
+public final class WaitStatistics
+{
+    private static final double smoothing = 0.3;
+    private static final Pattern sessionIdPattern = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|[0-9a-f]{32}");
+
+    private static final Map<String, Condition> conditions = new ConcurrentHashMap<>();
+    private static final ThreadLocal<long[]> currentTest = ThreadLocal.withInitial(() -> new long[2]);
+
+    private WaitStatistics()
+    {
+    }
+
+    // Lambdas have no useful toString, but their class is unique per call site for the life of the
+    // JVM. Element based conditions mention the session, which would make every test look like a new
+    // condition.
+    public static String key(Object condition)
+    {
+        if (condition.getClass().isHidden() || condition.getClass().isSynthetic())
+        {
+            return condition.getClass().getName();
+        }
+
+        return sessionIdPattern.matcher(String.valueOf(condition)).replaceAll("*");
+    }
+
+    public static long expectedNanos(String key)
+    {
+        Condition condition = conditions.get(key);
+
+        return condition != null ? condition.expectedNanos() : -1;
+    }
+
+    public static void record(String key, long nanos, int polls, boolean satisfied)
+    {
+        conditions.computeIfAbsent(key, Condition::new).record(nanos, polls, satisfied);
+        SuiteMetrics.waitDuration.recordNanos(nanos);
+        Trace.complete("wait", key, System.nanoTime() - nanos, System.nanoTime());
+
+        if (!satisfied)
+        {
+            SuiteMetrics.waitTimeouts.increment();
+        }
+
+        long[] test = currentTest.get();
+        test[0] += nanos;
+        test[1] += 1;
+    }
+
+    public static void beginTest()
+    {
+        long[] test = currentTest.get();
+        test[0] = 0;
+        test[1] = 0;
+    }
+
+    public static long currentTestWaitNanos()
+    {
+        return currentTest.get()[0];
+    }
+
+    public static long currentTestWaits()
+    {
+        return currentTest.get()[1];
+    }
+
+    public static List<Map<String, Object>> summary()
+    {
+        return conditions.values().stream()
+                .sorted(Comparator.comparingLong(Condition::totalNanos).reversed())
+                .map(Condition::toRecord)
+                .toList();
+    }
+
+    private static final class Condition
+    {
+        private final String key;
+        private long count;
+        private long timeouts;
+        private long polls;
+        private long totalNanos;
+        private long maxNanos;
+        private double averageNanos = -1;
+
+        private Condition(String key)
+        {
+            this.key = key;
+        }
+
+        private synchronized void record(long nanos, int pollCount, boolean satisfied)
+        {
+            ++count;
+            polls += pollCount;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+
+            if (!satisfied)
+            {
+                ++timeouts;
+                return;
+            }
+
+            averageNanos = averageNanos < 0 ? nanos : smoothing * nanos + (1 - smoothing) * averageNanos;
+        }
+
+        private synchronized long expectedNanos()
+        {
+            return (long) averageNanos;
+        }
+
+        private synchronized long totalNanos()
+        {
+            return totalNanos;
+        }
+
+        private synchronized Map<String, Object> toRecord()
+        {
+            Map<String, Object> record = new LinkedHashMap<>();
+            record.put("condition", key);
+            record.put("count", count);
+            record.put("timeouts", timeouts);
+            record.put("polls", polls);
+            record.put("totalMillis", totalNanos / 1_000_000.0);
+            record.put("maxMillis", maxNanos / 1_000_000.0);
+            record.put("expectedMillis", Math.max(0, averageNanos) / 1_000_000.0);
+
+            return record;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.TestTag;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Starts pre-warming browser sessions as soon as discovery has produced the test plan, for the tests
+// tagged "browser" (@Tag("browser") on the classes whose tests get their session from Drivers.create).
+// A run without browser tests starts no browser, see WarmSessionPool for who else gets a session.
+// -Dcoffeecart.prewarm=false turns it off, -Dcoffeecart.prewarm.target overrides the number of
+// sessions kept ahead of demand, which defaults to the number of parallel workers.
+public class WarmSessionListener implements TestExecutionListener
+{
+    private static final TestTag browserTag = TestTag.create("browser");
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan)
+    {
+        if (System.getProperty("coffeecart.prewarm", "true").equals("false"))
+        {
+            return;
+        }
+
+        Set<TestIdentifier> browserMethods = testPlan.getRoots().stream()
+                .flatMap(root -> testPlan.getDescendants(root).stream())
+                .filter(WarmSessionListener::isBrowserMethod)
+                .collect(Collectors.toSet());
+
+        if (browserMethods.isEmpty())
+        {
+            return;
+        }
+
+        Set<String> tests = browserMethods.stream().filter(TestIdentifier::isTest).map(WarmSessionListener::id).collect(Collectors.toSet());
+        int target = Integer.getInteger("coffeecart.prewarm.target", workers(testPlan.getConfigurationParameters()));
+
+        WarmSessionPool.get().start(Drivers.defaultOptions(), tests,
+                browserMethods.stream().map(WarmSessionListener::id).collect(Collectors.toSet()), target);
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan)
+    {
+        WarmSessionPool.get().shutdown();
+    }
+
+    private static boolean isBrowserMethod(TestIdentifier testIdentifier)
+    {
+        return testIdentifier.getTags().contains(browserTag) && testIdentifier.getSource().filter(MethodSource.class::isInstance).isPresent();
+    }
+
+    private static String id(TestIdentifier testIdentifier)
+    {
+        return CurrentTest.of(testIdentifier).id();
+    }
+
+    private static int workers(ConfigurationParameters parameters)
+    {
+        if (!parameters.getBoolean("junit.jupiter.execution.parallel.enabled").orElse(false))
+        {
+            return 1;
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        String strategy = parameters.get("junit.jupiter.execution.parallel.config.strategy").orElse("dynamic");
+
+        if (strategy.equals("fixed"))
+        {
+            return parameters.get("junit.jupiter.execution.parallel.config.fixed.parallelism")
+                    .map(Integer::parseInt)
+                    .orElse(cores);
+        }
+
+        double factor = parameters.get("junit.jupiter.execution.parallel.config.dynamic.factor")
+                .map(Double::parseDouble)
+                .orElse(1.0);
+
+        return Math.max(1, (int) (cores * factor));
+    }
+}
@@ -0,0 +1,201 @@
+import org.openqa.selenium.Capabilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Browser sessions started on background threads ahead of demand. Once the test plan is known the
+// pool keeps up to `target` sessions ready or launching, but never more than the tests still to
+// come, so a test's driver acquire is usually just a queue poll. Demand is the browser tests of the
+// plan, each counted once; only they may wait for a launching session. Invocations of parameterized
+// and dynamic browser tests, which the plan cannot count, take a ready session if there is one and
+// leave the demand alone. Anything else (benchmarks, tools) always launches its own.
+public final class WarmSessionPool
+{
+    private static final WarmSessionPool instance = new WarmSessionPool();
+    private static final long maxWaitSeconds = 120;
+
+    private final BlockingQueue<DriverSession> ready = new LinkedBlockingQueue<>();
+    private final AtomicInteger launching = new AtomicInteger();
+    private final AtomicInteger remainingDemand = new AtomicInteger();
+    private final Set<String> expectedTests = ConcurrentHashMap.newKeySet();
+    private volatile Set<String> browserMethods = Set.of();
+
+    private final LongAdder readyHits = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder inlineLaunches = new LongAdder();
+    private final LongAdder launchFailures = new LongAdder();
+
+    private volatile boolean running;
+    private Capabilities options;
+    private int target;
+    private ExecutorService launcher;
+
+    private WarmSessionPool()
+    {
+    }
+
+    public static WarmSessionPool get()
+    {
+        return instance;
+    }
+
+    // expectedTests and browserMethods are CurrentTest ids (class#method): the tests that count towards
+    // demand and every method of a browser test class, including parameterized and factory methods
+    public synchronized void start(Capabilities options, Set<String> expectedTests, Set<String> browserMethods, int target)
+    {
+        if (running || expectedTests.isEmpty() || target == 0)
+        {
+            return;
+        }
+
+        Browser.of(options).setupDriver();
+
+        this.options = options;
+        this.target = target;
+        this.expectedTests.addAll(expectedTests);
+        this.browserMethods = Set.copyOf(browserMethods);
+        this.remainingDemand.set(expectedTests.size());
+        this.launcher = Executors.newFixedThreadPool(target, runnable -> {
+            Thread thread = new Thread(runnable, "session-prewarm");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        this.running = true;
+
+        refill();
+    }
+
+    public DriverSession take(Capabilities requested)
+    {
+        String test = CurrentTest.get().id();
+
+        if (!running || !requested.asMap().equals(options.asMap()) || !browserMethods.contains(test))
+        {
+            inlineLaunches.increment();
+
+            return null;
+        }
+
+        // A test taking a second session is no longer counted
+        boolean counted = expectedTests.remove(test);
+
+        if (counted)
+        {
+            remainingDemand.decrementAndGet();
+        }
+
+        DriverSession session = ready.poll();
+
+        if (session != null)
+        {
+            readyHits.increment();
+        }
+        else if (counted && launching.get() > 0)
+        {
+            long started = System.nanoTime();
+
+            try
+            {
+                session = ready.poll(maxWaitSeconds, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            waits.increment();
+            waitNanos.add(System.nanoTime() - started);
+        }
+
+        if (session == null)
+        {
+            inlineLaunches.increment();
+        }
+
+        refill();
+
+        return session;
+    }
+
+    public int readySessions()
+    {
+        return ready.size();
+    }
+
+    private synchronized void refill()
+    {
+        while (running && ready.size() + launching.get() < Math.min(target, remainingDemand.get()))
+        {
+            launching.incrementAndGet();
+            launcher.execute(this::launchOne);
+        }
+    }
+
+    private void launchOne()
+    {
+        Trace.begin("pool", "launch session");
+
+        try
+        {
+            ready.add(Drivers.launch(options));
+        }
+        catch (RuntimeException e)
+        {
+            // Stop warming up, the next test then starts its own session and reports the real error
+            launchFailures.increment();
+            running = false;
+            System.err.println("Session pre-warming stopped: " + e.getMessage());
+        }
+        finally
+        {
+            launching.decrementAndGet();
+            Trace.end();
+        }
+    }
+
+    public synchronized void shutdown()
+    {
+        if (launcher == null)
+        {
+            return;
+        }
+
+        running = false;
+        launcher.shutdown();
+
+        try
+        {
+            launcher.awaitTermination(maxWaitSeconds, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        List<DriverSession> unused = new ArrayList<>();
+        ready.drainTo(unused);
+        unused.forEach(Drivers::close);
+
+        System.out.println(statistics() + ", " + unused.size() + " unused");
+        launcher = null;
+    }
+
+    public String statistics()
+    {
+        long acquisitions = readyHits.sum() + waits.sum() + inlineLaunches.sum();
+
+        return String.format("Session pre-warming: %d acquisitions, %d ready, %d waited (%.1f ms total), %d launched inline, %d launch failures",
+                acquisitions, readyHits.sum(), waits.sum(), waitNanos.sum() / 1_000_000.0, inlineLaunches.sum(), launchFailures.sum());
+    }
+}
@@ -0,0 +1,43 @@
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Method;
+
+final class WebDriverCalls
+{
+    private WebDriverCalls()
+    {
+    }
+
+    static boolean isNavigation(Object target, Method method)
+    {
+        if (target instanceof WebDriver.Navigation)
+        {
+            return true;
+        }
+
+        return target instanceof WebDriver && method.getName().equals("get");
+    }
+
+    static String describe(Object target, Method method)
+    {
+        return targetKind(target) + "." + method.getName();
+    }
+
+    static String targetKind(Object target)
+    {
+        if (target instanceof WebDriver)
+        {
+            return "WebDriver";
+        }
+
+        for (Class<?> type : target.getClass().getInterfaces())
+        {
+            if (type.getName().startsWith("org.openqa.selenium"))
+            {
+                return type.getSimpleName();
+            }
+        }
+
+        return target.getClass().getSimpleName();
+    }
+}